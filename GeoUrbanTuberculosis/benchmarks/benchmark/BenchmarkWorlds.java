@@ -0,0 +1,67 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Map;
+import config.SourcePaths;
+import datasource.Reader;
+import model.Citizen;
+import simulation.HeadlessSimulation;
+
+public final class BenchmarkWorlds {
+
+	/**
+	 * Benchmark random seed
+	 */
+	public static final double RANDOM_SEED = 7;
+
+	/**
+	 * Benchmark replica seed
+	 */
+	public static final long REPLICA_SEED = 11;
+
+	/**
+	 * Average room ventilation rate that makes exposures practically
+	 * impossible, so that benchmarked infections leave the world unchanged
+	 */
+	public static final double NO_EXPOSURE_VENTILATION_RATE = 1e12;
+
+	/**
+	 * Private constructor
+	 */
+	private BenchmarkWorlds() {
+		throw new UnsupportedOperationException("Utility class");
+	}
+
+	/**
+	 * Read the default model parameters with a fixed seed
+	 */
+	public static Map<String, Double> readParameters() {
+		Map<String, Double> parameters = Reader
+				.readParameters(SourcePaths.PARAMETERS_DATABASE);
+		parameters.put("randomSeed", RANDOM_SEED);
+		return parameters;
+	}
+
+	/**
+	 * Create a headless world of susceptible citizens with initialized
+	 * attributes and reference locations. Repast projections are replaced
+	 * by the headless city grid.
+	 *
+	 * @param parameters Model parameters
+	 * @param citizens   Number of citizens
+	 */
+	public static HeadlessSimulation createWorld(Map<String, Double> parameters,
+			int citizens) {
+		parameters.put("exposedCount", 0.0);
+		parameters.put("susceptibleCount", (double) citizens);
+		HeadlessSimulation world = new HeadlessSimulation(parameters);
+		List<Citizen> population = world.getCitizens();
+		for (Citizen citizen : population) {
+			citizen.seedRandom(REPLICA_SEED);
+			citizen.init();
+			citizen.start();
+		}
+		return world;
+	}
+
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import model.Citizen;
+import simulation.HeadlessSimulation;
+
+/**
+ * Citizen hot paths on a single crowded cell. Exposures are made
+ * practically impossible so that every invocation walks the same
+ * susceptible list; the cost measured is the per-susceptible draw loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CitizenBenchmark {
+
+	/**
+	 * Citizens in the cell
+	 */
+	@Param({ "10", "100", "1000" })
+	public int occupancy;
+
+	/**
+	 * Share of the cell's citizens that are infected
+	 */
+	@Param({ "0.01", "0.1", "0.5" })
+	public double infectedShare;
+
+	/**
+	 * World
+	 */
+	private HeadlessSimulation world;
+
+	/**
+	 * Infected citizen expelling particles
+	 */
+	private Citizen expeller;
+
+	/**
+	 * Citizen walking around
+	 */
+	private Citizen walker;
+
+	/**
+	 * Set up a world with every citizen in the same cell
+	 */
+	@Setup
+	public void setUp() {
+		Map<String, Double> parameters = BenchmarkWorlds.readParameters();
+		parameters.put("averageRoomVentilationRate",
+				BenchmarkWorlds.NO_EXPOSURE_VENTILATION_RATE);
+		this.world = BenchmarkWorlds.createWorld(parameters, this.occupancy);
+		List<Citizen> citizens = this.world.getCitizens();
+		for (Citizen citizen : citizens) {
+			this.world.moveTo(citizen, 0.5, 0.5);
+		}
+		int infected = Math.max(1,
+				(int) Math.round(this.infectedShare * this.occupancy));
+		for (int i = 0; i < infected; i++) {
+			citizens.get(i).transitionToInfected();
+		}
+		this.expeller = citizens.get(0);
+		this.walker = citizens.get(citizens.size() - 1);
+	}
+
+	/**
+	 * Expel particles over the cell's susceptible citizens
+	 */
+	@Benchmark
+	public void infect() {
+		this.expeller.expelParticles();
+	}
+
+	/**
+	 * Take a random walk step
+	 */
+	@Benchmark
+	public void randomWalk() {
+		this.walker.step();
+	}
+
+	/**
+	 * Commute to the workplace and back
+	 */
+	@Benchmark
+	public void goTo() {
+		this.walker.goWork();
+		this.walker.goHome();
+	}
+
+}
@@ -0,0 +1,163 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import model.Citizen;
+import model.CitizenEvent;
+import repast.simphony.engine.environment.RunEnvironment;
+import repast.simphony.engine.schedule.ISchedulableAction;
+import repast.simphony.engine.schedule.ISchedule;
+import repast.simphony.engine.schedule.Schedule;
+import simulation.EventGenerations;
+import simulation.EventQueue;
+import simulation.EventScheduler;
+import simulation.TimingWheel;
+
+/**
+ * Citizen event scheduling with pending events around: scheduling and
+ * cancelling a one-time event on the Repast schedule and on the headless
+ * event queue (with lazy cancellation), and firing a daily event on the
+ * event queue and on the timing wheel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSchedulerBenchmark {
+
+	/**
+	 * Pending events
+	 */
+	@Param({ "1000", "100000" })
+	public int pending;
+
+	/**
+	 * Repast schedule
+	 */
+	private ISchedule schedule;
+
+	/**
+	 * Headless event queue
+	 */
+	private EventQueue eventQueue;
+
+	/**
+	 * Event generations
+	 */
+	private EventGenerations generations;
+
+	/**
+	 * Headless event queue holding daily events
+	 */
+	private EventQueue dailyQueue;
+
+	/**
+	 * Timing wheel holding daily events
+	 */
+	private TimingWheel timingWheel;
+
+	/**
+	 * Scheduled citizen
+	 */
+	private Citizen citizen;
+
+	/**
+	 * Set up a standalone Repast schedule, event queues and a timing wheel,
+	 * all with pending events
+	 */
+	@Setup
+	public void setUp() {
+		this.schedule = new Schedule();
+		RunEnvironment.init(this.schedule, null, null, true);
+		this.citizen = BenchmarkWorlds
+				.createWorld(BenchmarkWorlds.readParameters(), 1).getCitizen(0);
+		EventScheduler eventScheduler = EventScheduler.getInstance();
+		this.eventQueue = new EventQueue();
+		this.generations = new EventGenerations(this.pending);
+		for (int i = 0; i < this.pending; i++) {
+			eventScheduler.scheduleOneTimeEvent(i + 1, this.citizen,
+					CitizenEvent.GO_HOME.getMethodName());
+			this.eventQueue.push(i + 1, 1, CitizenEvent.GO_HOME.ordinal(), 0,
+					0);
+		}
+		this.dailyQueue = new EventQueue();
+		this.timingWheel = new TimingWheel();
+		this.timingWheel.clear(0);
+		double spacing = (double) TimingWheel.PERIOD / this.pending;
+		for (int i = 0; i < this.pending; i++) {
+			this.dailyQueue.push(i * spacing, i, CitizenEvent.GO_WORK.ordinal(),
+					TimingWheel.PERIOD, 0);
+			this.timingWheel.push(i * spacing, i,
+					CitizenEvent.GO_WORK.ordinal(), 0);
+		}
+	}
+
+	/**
+	 * Schedule and remove a one-time event on the Repast schedule
+	 */
+	@Benchmark
+	public boolean scheduleOneTimeEvent() {
+		ISchedulableAction action = EventScheduler.getInstance()
+				.scheduleOneTimeEvent(this.pending / 2.0, this.citizen,
+						CitizenEvent.GO_WORK.getMethodName());
+		return this.schedule.removeAction(action);
+	}
+
+	/**
+	 * Push and cancel a one-time event on the headless event queue, then
+	 * drop it when it comes up
+	 */
+	@Benchmark
+	public int pushOneTimeEvent() {
+		int event = CitizenEvent.GO_WORK.ordinal();
+		this.eventQueue.push(0.5, 0, event, 0,
+				this.generations.getToken(0, event));
+		this.generations.cancel(0, event);
+		if (!this.generations.isCurrent(this.eventQueue.peekToken(), 0,
+				event)) {
+			this.eventQueue.poll();
+		}
+		return this.eventQueue.size();
+	}
+
+	/**
+	 * Take the next daily event off the headless event queue and re-queue
+	 * it a day later
+	 */
+	@Benchmark
+	public int pollDailyEventFromQueue() {
+		EventQueue queue = this.dailyQueue;
+		double time = queue.peekTime();
+		int citizen = queue.peekCitizen();
+		int event = queue.peekEvent();
+		queue.poll();
+		queue.push(time + TimingWheel.PERIOD, citizen, event,
+				TimingWheel.PERIOD, 0);
+		return citizen;
+	}
+
+	/**
+	 * Take the next daily event off the timing wheel, which keeps it for
+	 * the next day
+	 */
+	@Benchmark
+	public int pollDailyEventFromWheel() {
+		TimingWheel wheel = this.timingWheel;
+		int citizen = wheel.peekCitizen();
+		wheel.poll();
+		return citizen;
+	}
+
+}
@@ -0,0 +1,138 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import model.Citizen;
+import model.Population;
+import model.RandomStreams;
+import model.Randomizer;
+import simulation.HeadlessSimulation;
+import simulation.ParametersAdapter;
+
+/**
+ * Randomizer draws, straight from a citizen's random stream as the model
+ * makes them and through a block buffer of the benchmarked size for
+ * comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomizerBenchmark {
+
+	/**
+	 * Exposure probability
+	 */
+	public static final double EXPOSURE_PROBABILITY = 0.01;
+
+	/**
+	 * Replica seed of the buffered stream
+	 */
+	public static final long REPLICA_SEED = 7;
+
+	/**
+	 * Uniform variates generated per block by the buffer
+	 */
+	@Param({ "4", "16", "64" })
+	public int blockSize;
+
+	/**
+	 * Random stream
+	 */
+	private SplittableRandom random;
+
+	/**
+	 * Variate buffer
+	 */
+	private VariateBuffer variates;
+
+	/**
+	 * Population store
+	 */
+	private Population population;
+
+	/**
+	 * Parameters adapter
+	 */
+	private ParametersAdapter parametersAdapter;
+
+	/**
+	 * Set up a single citizen's random stream and attributes, and a buffer
+	 * over a stream of its own
+	 */
+	@Setup
+	public void setUp() {
+		HeadlessSimulation world = BenchmarkWorlds
+				.createWorld(BenchmarkWorlds.readParameters(), 1);
+		Citizen citizen = world.getCitizen(0);
+		this.random = citizen.getRandom();
+		this.variates = new VariateBuffer(
+				RandomStreams.createAgentStream(REPLICA_SEED, citizen.getId()),
+				this.blockSize);
+		this.population = world.getPopulation();
+		this.parametersAdapter = world.getParametersAdapter();
+	}
+
+	/**
+	 * Draw an exposure
+	 */
+	@Benchmark
+	public boolean isGettingExposed() {
+		return Randomizer.isGettingExposed(this.random, EXPOSURE_PROBABILITY);
+	}
+
+	/**
+	 * Draw an exposure through the buffer
+	 */
+	@Benchmark
+	public boolean isGettingExposedBuffered() {
+		return this.variates.nextUniform() <= EXPOSURE_PROBABILITY;
+	}
+
+	/**
+	 * Draw a random walk step
+	 */
+	@Benchmark
+	public double randomWalk() {
+		double x = this.random.nextDouble(-Citizen.DISPLACEMENT_PER_STEP,
+				Citizen.DISPLACEMENT_PER_STEP);
+		double y = this.random.nextDouble(-Citizen.DISPLACEMENT_PER_STEP,
+				Citizen.DISPLACEMENT_PER_STEP);
+		return x + y;
+	}
+
+	/**
+	 * Draw a random walk step through the buffer
+	 */
+	@Benchmark
+	public double randomWalkBuffered() {
+		double x = this.variates.nextUniform(-Citizen.DISPLACEMENT_PER_STEP,
+				Citizen.DISPLACEMENT_PER_STEP);
+		double y = this.variates.nextUniform(-Citizen.DISPLACEMENT_PER_STEP,
+				Citizen.DISPLACEMENT_PER_STEP);
+		return x + y;
+	}
+
+	/**
+	 * Draw an infection
+	 */
+	@Benchmark
+	public boolean isGettingInfected() {
+		return Randomizer.isGettingInfected(this.random, this.population, 0,
+				this.parametersAdapter);
+	}
+
+}
@@ -0,0 +1,32 @@
+package benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import calibration.CalibrationParameter;
+import config.SourcePaths;
+import datasource.Reader;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark {
+
+	/**
+	 * Read the calibration setup
+	 */
+	@Benchmark
+	public Map<String, CalibrationParameter> readCalibrationSetup() {
+		return Reader
+				.readCalibrationSetup(SourcePaths.CALIBRATION_SETUP_DATABASE);
+	}
+
+}
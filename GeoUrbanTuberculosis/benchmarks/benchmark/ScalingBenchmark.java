@@ -0,0 +1,247 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import model.Citizen;
+import simulation.HeadlessSimulation;
+import util.TickConverter;
+
+/**
+ * End-to-end scaling benchmark. Runs a fixed-seed headless replica for
+ * every combination of population, city size and infected share, and
+ * writes one CSV row per scenario. Arguments are optional key=value pairs
+ * (lists are comma separated), e.g. populations=250,1000 citySizes=10
+ * infectedShares=0.01 ticks=168 warmupTicks=24 output=scaling.csv.
+ * Large scenarios need a large heap (-Xmx).
+ */
+public final class ScalingBenchmark {
+
+	/**
+	 * Default populations
+	 */
+	public static final String DEFAULT_POPULATIONS = "250,1000,10000,100000,1000000";
+
+	/**
+	 * Default city sizes (cells per side)
+	 */
+	public static final String DEFAULT_CITY_SIZES = "10,100,1000";
+
+	/**
+	 * Default infected shares
+	 */
+	public static final String DEFAULT_INFECTED_SHARES = "0.01,0.1";
+
+	/**
+	 * Default measured ticks
+	 */
+	public static final int DEFAULT_TICKS = TickConverter.TICKS_PER_WEEK;
+
+	/**
+	 * Default warm-up ticks
+	 */
+	public static final int DEFAULT_WARMUP_TICKS = TickConverter.TICKS_PER_DAY;
+
+	/**
+	 * Default results file
+	 */
+	public static final String DEFAULT_OUTPUT = "./output/scaling-benchmark.csv";
+
+	/**
+	 * Results header
+	 */
+	public static final String HEADER = "population,citySize,infectedShare,"
+			+ "ticks,seconds,ticksPerSecond,eventsPerSecond,peakHeapBytes,"
+			+ "bytesPerAgent,gcCount,gcMillis";
+
+	/**
+	 * Private constructor
+	 */
+	private ScalingBenchmark() {
+		throw new UnsupportedOperationException("Utility class");
+	}
+
+	/**
+	 * Run the scaling benchmark
+	 *
+	 * @param args Command line arguments
+	 */
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException(
+						String.format("Expected key=value, got %s", arg));
+			}
+			options.put(arg.substring(0, separator),
+					arg.substring(separator + 1));
+		}
+		int[] populations = parseInts(
+				options.getOrDefault("populations", DEFAULT_POPULATIONS));
+		int[] citySizes = parseInts(
+				options.getOrDefault("citySizes", DEFAULT_CITY_SIZES));
+		double[] infectedShares = parseDoubles(options
+				.getOrDefault("infectedShares", DEFAULT_INFECTED_SHARES));
+		int ticks = Integer.parseInt(
+				options.getOrDefault("ticks", String.valueOf(DEFAULT_TICKS)));
+		int warmupTicks = Integer.parseInt(options.getOrDefault("warmupTicks",
+				String.valueOf(DEFAULT_WARMUP_TICKS)));
+		Path output = Paths.get(options.getOrDefault("output", DEFAULT_OUTPUT));
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+			writer.write(HEADER);
+			writer.newLine();
+			System.out.println(HEADER);
+			for (int population : populations) {
+				for (int citySize : citySizes) {
+					for (double infectedShare : infectedShares) {
+						String row = runScenario(population, citySize,
+								infectedShare, ticks, warmupTicks);
+						writer.write(row);
+						writer.newLine();
+						writer.flush();
+						System.out.println(row);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run scenario
+	 *
+	 * @param population    Number of citizens
+	 * @param citySize      City's length and width
+	 * @param infectedShare Share of citizens infected at the start
+	 * @param ticks         Measured ticks
+	 * @param warmupTicks   Warm-up ticks
+	 * @return Results row
+	 */
+	private static String runScenario(int population, int citySize,
+			double infectedShare, int ticks, int warmupTicks) {
+		long baselineHeap = getUsedHeap();
+		Map<String, Double> parameters = BenchmarkWorlds.readParameters();
+		parameters.put("exposedCount", 0.0);
+		parameters.put("susceptibleCount", (double) population);
+		parameters.put("cityLength", (double) citySize);
+		parameters.put("cityWidth", (double) citySize);
+		HeadlessSimulation world = new HeadlessSimulation(parameters);
+		world.startReplica(0);
+		List<Citizen> citizens = world.getCitizens();
+		int infected = (int) Math.round(infectedShare * population);
+		for (int i = 0; i < infected; i++) {
+			citizens.get(i).transitionToInfected();
+		}
+		long worldHeap = getUsedHeap() - baselineHeap;
+		world.runUntil(world.getTick() + warmupTicks);
+		// Measure from a collected heap so that peaks belong to the scenario
+		getUsedHeap();
+		List<MemoryPoolMXBean> heapPools = getHeapPools();
+		for (MemoryPoolMXBean pool : heapPools) {
+			pool.resetPeakUsage();
+		}
+		long gcCount = getGcCount();
+		long gcMillis = getGcMillis();
+		long events = world.getEventCount();
+		long start = System.nanoTime();
+		world.runUntil(world.getTick() + ticks);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		events = world.getEventCount() - events;
+		gcCount = getGcCount() - gcCount;
+		gcMillis = getGcMillis() - gcMillis;
+		long peakHeap = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			peakHeap += pool.getPeakUsage().getUsed();
+		}
+		return String.format(Locale.ROOT,
+				"%d,%d,%s,%d,%.3f,%.1f,%.1f,%d,%.1f,%d,%d", population,
+				citySize, infectedShare, ticks, seconds, ticks / seconds,
+				events / seconds, peakHeap, (double) worldHeap / population,
+				gcCount, gcMillis);
+	}
+
+	/**
+	 * Get used heap after a full collection
+	 */
+	private static long getUsedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Get heap memory pools
+	 */
+	private static List<MemoryPoolMXBean> getHeapPools() {
+		List<MemoryPoolMXBean> pools = ManagementFactory
+				.getMemoryPoolMXBeans();
+		pools.removeIf(pool -> pool.getType() != MemoryType.HEAP);
+		return pools;
+	}
+
+	/**
+	 * Get total garbage collections
+	 */
+	private static long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory
+				.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * Get total garbage collection time in milliseconds
+	 */
+	private static long getGcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory
+				.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return millis;
+	}
+
+	/**
+	 * Parse comma-separated integers
+	 *
+	 * @param values Comma-separated values
+	 */
+	private static int[] parseInts(String values) {
+		String[] tokens = values.split(",");
+		int[] parsed = new int[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			parsed[i] = Integer.parseInt(tokens[i].trim());
+		}
+		return parsed;
+	}
+
+	/**
+	 * Parse comma-separated doubles
+	 *
+	 * @param values Comma-separated values
+	 */
+	private static double[] parseDoubles(String values) {
+		String[] tokens = values.split(",");
+		double[] parsed = new double[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			parsed[i] = Double.parseDouble(tokens[i].trim());
+		}
+		return parsed;
+	}
+
+}
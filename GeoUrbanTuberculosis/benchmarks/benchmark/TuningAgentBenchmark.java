@@ -0,0 +1,106 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import calibration.CalibrationParameter;
+import calibration.QLearningTuningAgent;
+import config.SourcePaths;
+import datasource.Reader;
+import repast.simphony.random.RandomHelper;
+import repast.simphony.util.collections.Pair;
+
+/**
+ * Q-learning tuning agent steps. While QLearningTuningAgent.DEBUG is on,
+ * updateLearning includes formatting its trace (printed to a null stream).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TuningAgentBenchmark {
+
+	/**
+	 * Calibration errors fed to the agent
+	 */
+	private static final Pair<Double, Double> CALIBRATION_ERRORS = new Pair<>(
+			0.05, 0.2);
+
+	/**
+	 * Tuning agent
+	 */
+	private QLearningTuningAgent tuningAgent;
+
+	/**
+	 * Tunable parameters
+	 */
+	private Map<String, Double> tunableParameters;
+
+	/**
+	 * Standard output
+	 */
+	private PrintStream standardOutput;
+
+	/**
+	 * Set up an activated tuning agent
+	 */
+	@Setup
+	public void setUp() {
+		RandomHelper.setSeed((int) BenchmarkWorlds.RANDOM_SEED);
+		Map<String, CalibrationParameter> calibrationSetup = Reader
+				.readCalibrationSetup(SourcePaths.CALIBRATION_SETUP_DATABASE);
+		this.tunableParameters = new HashMap<>();
+		for (Map.Entry<String, CalibrationParameter> parameter : calibrationSetup
+				.entrySet()) {
+			this.tunableParameters.put(parameter.getKey(),
+					parameter.getValue().getLowerBound());
+		}
+		this.tuningAgent = new QLearningTuningAgent(0.3, 0.1, 0.9);
+		this.tuningAgent.activate(this.tunableParameters, calibrationSetup);
+		this.standardOutput = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+	}
+
+	/**
+	 * Restore standard output
+	 */
+	@TearDown
+	public void tearDown() {
+		System.setOut(this.standardOutput);
+	}
+
+	/**
+	 * Select an action
+	 */
+	@Benchmark
+	public Pair<String, Double> selectAction() {
+		return this.tuningAgent.selectAction();
+	}
+
+	/**
+	 * Update learning and apply the next action
+	 */
+	@Benchmark
+	public void updateLearning() {
+		this.tuningAgent.updateLearning(CALIBRATION_ERRORS,
+				this.tunableParameters);
+		Pair<String, Double> action = this.tuningAgent.selectAction();
+		this.tunableParameters.put(action.getFirst(), action.getSecond());
+	}
+
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Block-refilled uniform variates, the buffered alternative to drawing
+ * straight from a citizen's random stream. The model draws directly; this
+ * buffer only backs the buffered cases of {@link RandomizerBenchmark}.
+ */
+public class VariateBuffer {
+
+	/**
+	 * Pre-generated uniform variates
+	 */
+	private final double[] block;
+
+	/**
+	 * Next unread variate in the block
+	 */
+	private int next;
+
+	/**
+	 * Random stream
+	 */
+	private SplittableRandom random;
+
+	/**
+	 * Create a new variate buffer
+	 *
+	 * @param random    Random stream
+	 * @param blockSize Uniform variates generated per block
+	 */
+	public VariateBuffer(SplittableRandom random, int blockSize) {
+		this.random = random;
+		this.block = new double[blockSize];
+		this.next = blockSize;
+	}
+
+	/**
+	 * Get uniform variate in [0, 1)
+	 */
+	public double nextUniform() {
+		if (this.next == this.block.length) {
+			refill();
+		}
+		return this.block[this.next++];
+	}
+
+	/**
+	 * Get uniform variate in [from, to)
+	 *
+	 * @param from Lower bound
+	 * @param to   Upper bound
+	 */
+	public double nextUniform(double from, double to) {
+		return from + (to - from) * nextUniform();
+	}
+
+	/**
+	 * Refill block
+	 */
+	private void refill() {
+		double[] block = this.block;
+		SplittableRandom random = this.random;
+		for (int i = 0; i < block.length; i++) {
+			block[i] = random.nextDouble();
+		}
+		this.next = 0;
+	}
+
+}
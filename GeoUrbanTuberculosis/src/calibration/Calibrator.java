@@ -1,14 +1,19 @@
 package calibration;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import datasource.CheckpointReader;
+import output.CheckpointWriter;
+import output.OutputManager;
 import repast.simphony.engine.environment.RunEnvironment;
 import repast.simphony.engine.schedule.ScheduledMethod;
 import repast.simphony.util.collections.Pair;
 import simulation.ParametersAdapter;
-import simulation.SimulationBuilder;
+import simulation.World;
 
 public class Calibrator {
 
@@ -43,9 +48,21 @@ public class Calibrator {
 	public static final int CALIBRATIONS_BEFORE_PARAMETER_SWAP = 20;
 
 	/**
-	 * Current simulation run
+	 * Adaptive replication flag (end a calibration step as soon as the
+	 * median's confidence interval decides the comparison against the last
+	 * best calibration error)
 	 */
-	private int simulationRun;
+	public static final boolean ADAPTIVE_REPLICATION_FLAG = false;
+
+	/**
+	 * Confidence level for adaptive replication
+	 */
+	public static final double CONFIDENCE_LEVEL = 0.95;
+
+	/**
+	 * Current calibration step
+	 */
+	private int calibrationStep;
 
 	/**
 	 * Incidence rates
@@ -63,17 +80,17 @@ public class Calibrator {
 	private QLearningTuningAgent tuningAgent;
 
 	/**
-	 * Reference to simulation builder
+	 * Reference to world
 	 */
-	private SimulationBuilder simulationBuilder;
+	private World world;
 
 	/**
 	 * Create a new calibrator
 	 *
-	 * @param simulationBuilder Simulation builder
+	 * @param world World
 	 */
-	public Calibrator(SimulationBuilder simulationBuilder) {
-		this.simulationBuilder = simulationBuilder;
+	public Calibrator(World world) {
+		this.world = world;
 		this.incidenceRates = new ArrayList<>();
 		this.exposureRates = new ArrayList<>();
 	}
@@ -83,33 +100,104 @@ public class Calibrator {
 	 */
 	@ScheduledMethod(start = 0, priority = 3)
 	public void init() {
-		// Initialize simulation run
-		this.simulationRun = 1;
+		// Initialize calibration
+		initCalibration();
+	}
+
+	/**
+	 * Initialize calibration
+	 */
+	public void initCalibration() {
+		// Initialize calibration step
+		this.calibrationStep = 0;
 		// Initialize tuning agent
 		initTuningAgent();
-		// Schedule end time
-		double endTime = MAX_CALIBRATION_STEPS
-				* SIMULATIONS_PER_CALIBRATION_STEP
-				* (TICKS_PER_RUN + TICKS_BETWEEN_RUNS);
-		RunEnvironment.getInstance().endAt(endTime);
 	}
 
 	/**
-	 * Handle the 'onNewSimulationRun' event
+	 * Handle the 'onNewSimulationRun' event. Adaptive steps may take fewer
+	 * runs, so the run ends once the last calibration step is over rather
+	 * than at a precomputed tick.
 	 */
 	@ScheduledMethod(start = TICKS_PER_RUN
 			+ TICKS_BETWEEN_RUNS, interval = TICKS_PER_RUN
 					+ TICKS_BETWEEN_RUNS, priority = 2)
 	public void onNewSimulationRun() {
-		measureOutputs();
-		if (this.simulationRun >= SIMULATIONS_PER_CALIBRATION_STEP) {
-			Pair<Double, Double> calibrationErrors = calculateCalibrationErrors();
-			updateParameters(calibrationErrors);
-			resetMetrics();
-			this.simulationRun = 0;
+		OutputManager outputManager = this.world.getOutputManager();
+		measureOutputs(outputManager.getInfections(),
+				outputManager.getExposures());
+		if (isCalibrationStepOver()) {
+			endCalibrationStep();
+		}
+		this.world.resetSimulation();
+		if (this.calibrationStep >= MAX_CALIBRATION_STEPS) {
+			RunEnvironment.getInstance().endRun();
+		}
+	}
+
+	/**
+	 * Handle the 'onReplicasCompleted' event. Replicas are consumed in order
+	 * and the ones left once the calibration step ends are discarded.
+	 * 
+	 * @param outputs Replicas' infections and exposures
+	 * @return Number of replicas consumed
+	 */
+	public int onReplicasCompleted(List<Pair<Integer, Integer>> outputs) {
+		int consumed = 0;
+		for (Pair<Integer, Integer> output : outputs) {
+			measureOutputs(output.getFirst(), output.getSecond());
+			consumed++;
+			if (isCalibrationStepOver()) {
+				endCalibrationStep();
+				break;
+			}
+		}
+		return consumed;
+	}
+
+	/**
+	 * Get current calibration step
+	 */
+	public int getCalibrationStep() {
+		return this.calibrationStep;
+	}
+
+	/**
+	 * Get replicas left in the current calibration step
+	 */
+	public int getRemainingReplicas() {
+		return SIMULATIONS_PER_CALIBRATION_STEP - this.incidenceRates.size();
+	}
+
+	/**
+	 * Write calibration state to a checkpoint
+	 *
+	 * @param writer Checkpoint writer
+	 */
+	public void writeState(CheckpointWriter writer) throws IOException {
+		writer.writeInt(this.calibrationStep);
+		writer.writeInt(this.incidenceRates.size());
+		for (int i = 0; i < this.incidenceRates.size(); i++) {
+			writer.writeDouble(this.incidenceRates.get(i));
+			writer.writeDouble(this.exposureRates.get(i));
 		}
-		this.simulationBuilder.resetSimulation();
-		this.simulationRun++;
+		this.tuningAgent.writeState(writer);
+	}
+
+	/**
+	 * Read calibration state from a checkpoint
+	 *
+	 * @param reader Checkpoint reader
+	 */
+	public void readState(CheckpointReader reader) throws IOException {
+		this.calibrationStep = reader.readInt();
+		resetMetrics();
+		int replicas = reader.readInt();
+		for (int i = 0; i < replicas; i++) {
+			this.incidenceRates.add(reader.readDouble());
+			this.exposureRates.add(reader.readDouble());
+		}
+		this.tuningAgent.readState(reader);
 	}
 
 	/**
@@ -117,33 +205,34 @@ public class Calibrator {
 	 */
 	private void initTuningAgent() {
 		// Instantiate tuning agent
-		ParametersAdapter parametersAdapter = this.simulationBuilder.parametersAdapter;
+		ParametersAdapter parametersAdapter = this.world.getParametersAdapter();
 		double epsilon = parametersAdapter.getEpsilon();
 		double learningRate = parametersAdapter.getLearningRate();
 		double discountFactor = parametersAdapter.getDiscountFactor();
 		this.tuningAgent = new QLearningTuningAgent(epsilon, learningRate,
 				discountFactor);
 		// Activate tuning agent
-		Map<String, CalibrationParameter> setup = this.simulationBuilder.calibrationSetup;
-		Map<String, Double> tunableParameters = this.simulationBuilder.parametersAdapter
+		Map<String, CalibrationParameter> setup = this.world.getCalibrationSetup();
+		Map<String, Double> tunableParameters = this.world.getParametersAdapter()
 				.getTunableParameters();
 		this.tuningAgent.activate(tunableParameters, setup);
 	}
 
 	/**
 	 * Measure outputs
+	 * 
+	 * @param infections Infections
+	 * @param exposures  Exposures
 	 */
-	private void measureOutputs() {
+	private void measureOutputs(int infections, int exposures) {
 		// Measure incidence rate
-		int infections = this.simulationBuilder.outputManager.getInfections();
-		int initialSusceptibleCount = this.simulationBuilder.parametersAdapter
+		int initialSusceptibleCount = this.world.getParametersAdapter()
 				.getSusceptibleCount();
-		int initialExposedCount = this.simulationBuilder.parametersAdapter
+		int initialExposedCount = this.world.getParametersAdapter()
 				.getExposedCount();
 		int population = initialSusceptibleCount + initialExposedCount;
 		double incidenceRate = (infections * 1.0) / population;
 		// Measure mean infections per citizen
-		int exposures = this.simulationBuilder.outputManager.getExposures();
 		double exposureRate = (exposures * 1.0) / population;
 		// Save results
 		this.incidenceRates.add(incidenceRate);
@@ -155,20 +244,92 @@ public class Calibrator {
 		}
 	}
 
+	/**
+	 * Is the calibration step over?
+	 */
+	private boolean isCalibrationStepOver() {
+		if (this.incidenceRates.size() >= SIMULATIONS_PER_CALIBRATION_STEP) {
+			return true;
+		}
+		return ADAPTIVE_REPLICATION_FLAG && isComparisonDecided();
+	}
+
+	/**
+	 * End calibration step
+	 */
+	private void endCalibrationStep() {
+		Pair<Double, Double> calibrationErrors = calculateCalibrationErrors();
+		updateParameters(calibrationErrors);
+		resetMetrics();
+		this.calibrationStep++;
+	}
+
+	/**
+	 * Does the incidence rates' MAD confidence interval lie entirely above or
+	 * below the last best calibration error? Uses the distribution-free
+	 * order-statistic interval for the median.
+	 */
+	private boolean isComparisonDecided() {
+		double lastBestCalibrationError = this.tuningAgent
+				.getLastBestCalibrationError();
+		if (Double.isInfinite(lastBestCalibrationError)) {
+			return false;
+		}
+		int n = this.incidenceRates.size();
+		int rank = getMedianLowerRank(n);
+		if (rank < 1) {
+			return false;
+		}
+		double incidenceGoal = this.world.getParametersAdapter()
+				.getIncidenceRateGoal();
+		double[] deviations = new double[n];
+		for (int i = 0; i < n; i++) {
+			deviations[i] = Math.abs(this.incidenceRates.get(i) - incidenceGoal);
+		}
+		Arrays.sort(deviations);
+		double lowerBound = deviations[rank - 1];
+		double upperBound = deviations[n - rank];
+		return upperBound < lastBestCalibrationError
+				|| lowerBound > lastBestCalibrationError;
+	}
+
+	/**
+	 * Get the largest rank l such that the order statistics l and n - l + 1
+	 * bracket the median with the configured confidence (0 if none does)
+	 * 
+	 * @param n Sample size
+	 */
+	private int getMedianLowerRank(int n) {
+		double alpha = 1 - CONFIDENCE_LEVEL;
+		double probability = Math.pow(0.5, n);
+		double cumulative = 0;
+		int rank = 0;
+		for (int k = 0; k < n / 2; k++) {
+			// Binomial(n, 1/2) cumulative probability up to k
+			cumulative += probability;
+			if (cumulative > alpha / 2) {
+				break;
+			}
+			rank = k + 1;
+			probability = probability * (n - k) / (k + 1);
+		}
+		return rank;
+	}
+
 	/**
 	 * Calculate calibration error
 	 */
 	private Pair<Double, Double> calculateCalibrationErrors() {
 		DescriptiveStatistics stats = new DescriptiveStatistics();
 		// Calculate incidence rates' MAD
-		double incidenceGoal = this.simulationBuilder.parametersAdapter
+		double incidenceGoal = this.world.getParametersAdapter()
 				.getIncidenceRateGoal();
 		for (double incidenceRate : this.incidenceRates) {
 			stats.addValue(Math.abs(incidenceRate - incidenceGoal));
 		}
 		double incidenceMAD = stats.getPercentile(50);
 		// Calculate exposure rates' MAD
-		double exposureGoal = this.simulationBuilder.parametersAdapter
+		double exposureGoal = this.world.getParametersAdapter()
 				.getExposureRateGoal();
 		stats.clear();
 		for (double exposureRate : this.exposureRates) {
@@ -191,14 +352,14 @@ public class Calibrator {
 	 */
 	private void updateParameters(Pair<Double, Double> calibrationErrors) {
 		// Update learning device
-		Map<String, Double> tunableParameters = this.simulationBuilder.parametersAdapter
+		Map<String, Double> tunableParameters = this.world.getParametersAdapter()
 				.getTunableParameters();
 		this.tuningAgent.updateLearning(calibrationErrors, tunableParameters);
 		// Select action
 		Pair<String, Double> parameterSelection = this.tuningAgent
 				.selectAction();
 		// Update simulation parameters
-		ParametersAdapter parametersAdapter = this.simulationBuilder.parametersAdapter;
+		ParametersAdapter parametersAdapter = this.world.getParametersAdapter();
 		String parameterId = parameterSelection.getFirst();
 		double value = parameterSelection.getSecond();
 		parametersAdapter.setParameterValue(parameterId, value);
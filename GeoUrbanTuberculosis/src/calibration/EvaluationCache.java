@@ -0,0 +1,163 @@
+package calibration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import model.Citizen;
+import repast.simphony.util.collections.Pair;
+
+public class EvaluationCache {
+
+	/**
+	 * Cache format version (bump whenever model changes invalidate entries)
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Digest algorithm
+	 */
+	public static final String DIGEST_ALGORITHM = "SHA-256";
+
+	/**
+	 * Output separator
+	 */
+	public static final String OUTPUT_SEPARATOR = ",";
+
+	/**
+	 * Cache directory
+	 */
+	private Path directory;
+
+	/**
+	 * Create a new evaluation cache
+	 *
+	 * @param directory Cache directory
+	 */
+	public EvaluationCache(String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	/**
+	 * Get content address of a replica evaluation
+	 *
+	 * @param fixedParameters   Fixed parameters
+	 * @param tunableParameters Tunable parameters
+	 * @param replicaSeed       Replica seed
+	 */
+	public String getKey(Map<String, Double> fixedParameters,
+			Map<String, Double> tunableParameters, long replicaSeed) {
+		StringBuilder content = new StringBuilder();
+		content.append("version=").append(FORMAT_VERSION).append('\n');
+		content.append("ticksPerRun=").append(Calibrator.TICKS_PER_RUN)
+				.append('\n');
+		content.append("exposureSweep=").append(Citizen.EXPOSURE_SWEEP_FLAG)
+				.append('\n');
+		content.append("movementSweep=").append(Citizen.MOVEMENT_SWEEP_FLAG)
+				.append('\n');
+		appendParameters(content, "fixed.", fixedParameters);
+		appendParameters(content, "tunable.", tunableParameters);
+		content.append("seed=").append(replicaSeed).append('\n');
+		return digest(content.toString());
+	}
+
+	/**
+	 * Get hex digest of a given content
+	 *
+	 * @param content Content
+	 */
+	public static String digest(String content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			byte[] hash = digest
+					.digest(content.getBytes(StandardCharsets.UTF_8));
+			StringBuilder key = new StringBuilder();
+			for (byte b : hash) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException(nsae);
+		}
+	}
+
+	/**
+	 * Get cached replica outputs (null if absent)
+	 *
+	 * @param key Content address
+	 */
+	public Pair<Integer, Integer> get(String key) {
+		Path path = getPath(key);
+		if (!Files.exists(path)) {
+			return null;
+		}
+		try {
+			List<String> lines = Files.readAllLines(path,
+					StandardCharsets.UTF_8);
+			String[] elements = lines.get(0).split(OUTPUT_SEPARATOR);
+			int infections = Integer.parseInt(elements[0]);
+			int exposures = Integer.parseInt(elements[1]);
+			return new Pair<>(infections, exposures);
+		} catch (IOException | RuntimeException e) {
+			// Unreadable entries count as misses and get overwritten
+			return null;
+		}
+	}
+
+	/**
+	 * Cache replica outputs
+	 *
+	 * @param key     Content address
+	 * @param outputs Infections and exposures
+	 */
+	public void put(String key, Pair<Integer, Integer> outputs) {
+		Path path = getPath(key);
+		String line = outputs.getFirst() + OUTPUT_SEPARATOR
+				+ outputs.getSecond() + System.lineSeparator();
+		try {
+			Files.createDirectories(path.getParent());
+			// Write aside and move into place so readers never see a partial
+			// entry
+			Path temporary = Files.createTempFile(path.getParent(), key,
+					".tmp");
+			Files.write(temporary, line.getBytes(StandardCharsets.UTF_8));
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+	/**
+	 * Get entry path
+	 *
+	 * @param key Content address
+	 */
+	private Path getPath(String key) {
+		return this.directory.resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	/**
+	 * Append parameters in a canonical order
+	 *
+	 * @param content    Content
+	 * @param prefix     Prefix
+	 * @param parameters Parameters
+	 */
+	public static void appendParameters(StringBuilder content, String prefix,
+			Map<String, Double> parameters) {
+		for (Map.Entry<String, Double> parameter : new TreeMap<>(parameters)
+				.entrySet()) {
+			content.append(prefix).append(parameter.getKey()).append('=')
+					.append(parameter.getValue()).append('\n');
+		}
+	}
+
+}
@@ -0,0 +1,249 @@
+package calibration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import datasource.CheckpointReader;
+import output.CheckpointWriter;
+import repast.simphony.util.collections.Pair;
+
+public class ParetoArchive {
+
+	/**
+	 * Pareto front sorted on incidence rate error. Along the front the
+	 * exposure rate error strictly decreases as the incidence rate error
+	 * grows. Setups with identical errors share a bucket.
+	 */
+	private TreeMap<Double, List<ParetoOptimalSetup>> front;
+
+	/**
+	 * Insertion sequence numbers by setup
+	 */
+	private Map<ParetoOptimalSetup, Long> sequences;
+
+	/**
+	 * Next insertion sequence number
+	 */
+	private long nextSequence;
+
+	/**
+	 * Number of setups
+	 */
+	private int size;
+
+	/**
+	 * Create a new Pareto archive
+	 */
+	public ParetoArchive() {
+		this.front = new TreeMap<>();
+		this.sequences = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Is empty?
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Get number of setups
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Is the setup dominated by some archived setup?
+	 *
+	 * @param setup Setup
+	 */
+	public boolean isDominated(ParetoOptimalSetup setup) {
+		double incidenceRateError = setup.getIncidenceRateError();
+		double exposureRateError = setup.getExposureRateError();
+		// The lowest exposure error among setups with no larger incidence
+		// error belongs to the closest one
+		Map.Entry<Double, List<ParetoOptimalSetup>> floor = this.front
+				.floorEntry(incidenceRateError);
+		if (floor == null) {
+			return false;
+		}
+		double floorExposureRateError = getExposureRateError(floor);
+		if (floor.getKey() < incidenceRateError) {
+			return floorExposureRateError <= exposureRateError;
+		}
+		if (floorExposureRateError < exposureRateError) {
+			return true;
+		}
+		Map.Entry<Double, List<ParetoOptimalSetup>> lower = this.front
+				.lowerEntry(incidenceRateError);
+		return lower != null
+				&& getExposureRateError(lower) <= exposureRateError;
+	}
+
+	/**
+	 * Get the earliest archived setup dominating the setup (null if none)
+	 *
+	 * @param setup Setup
+	 */
+	public ParetoOptimalSetup getFirstDominator(ParetoOptimalSetup setup) {
+		double exposureRateError = setup.getExposureRateError();
+		ParetoOptimalSetup firstDominator = null;
+		long firstSequence = Long.MAX_VALUE;
+		// Walk dominator candidates from the closest one outwards: exposure
+		// errors grow along the way
+		for (List<ParetoOptimalSetup> bucket : this.front
+				.headMap(setup.getIncidenceRateError(), true).descendingMap()
+				.values()) {
+			if (getExposureRateError(bucket) > exposureRateError) {
+				break;
+			}
+			for (ParetoOptimalSetup paretoSetup : bucket) {
+				long sequence = this.sequences.get(paretoSetup);
+				if (sequence < firstSequence && dominates(paretoSetup, setup)) {
+					firstDominator = paretoSetup;
+					firstSequence = sequence;
+				}
+			}
+		}
+		return firstDominator;
+	}
+
+	/**
+	 * Insert a non-dominated setup, pruning the setups it dominates
+	 *
+	 * @param setup Setup
+	 */
+	public void insert(ParetoOptimalSetup setup) {
+		double incidenceRateError = setup.getIncidenceRateError();
+		double exposureRateError = setup.getExposureRateError();
+		// Dominated setups form a run starting at the setup's incidence
+		// error, so they are pruned as a single sub-map
+		NavigableMap<Double, List<ParetoOptimalSetup>> tail = this.front
+				.tailMap(incidenceRateError, true);
+		Double end = null;
+		for (Map.Entry<Double, List<ParetoOptimalSetup>> entry : tail
+				.entrySet()) {
+			double entryExposureRateError = getExposureRateError(entry);
+			if (entryExposureRateError < exposureRateError) {
+				end = entry.getKey();
+				break;
+			}
+			if (entry.getKey() == incidenceRateError
+					&& entryExposureRateError == exposureRateError) {
+				continue;
+			}
+			for (ParetoOptimalSetup dominatedSetup : entry.getValue()) {
+				this.sequences.remove(dominatedSetup);
+			}
+			this.size -= entry.getValue().size();
+		}
+		NavigableMap<Double, List<ParetoOptimalSetup>> dominated = (end == null)
+				? tail
+				: tail.headMap(end, false);
+		List<ParetoOptimalSetup> bucket = dominated.get(incidenceRateError);
+		if (bucket != null
+				&& getExposureRateError(bucket) != exposureRateError) {
+			bucket = null;
+		}
+		dominated.clear();
+		if (bucket == null) {
+			bucket = new ArrayList<>();
+		}
+		bucket.add(setup);
+		this.front.put(incidenceRateError, bucket);
+		this.sequences.put(setup, this.nextSequence++);
+		this.size++;
+	}
+
+	/**
+	 * Get archived setups, sorted on incidence rate error
+	 */
+	public List<ParetoOptimalSetup> getSetups() {
+		List<ParetoOptimalSetup> setups = new ArrayList<>(this.size);
+		for (List<ParetoOptimalSetup> bucket : this.front.values()) {
+			setups.addAll(bucket);
+		}
+		return setups;
+	}
+
+	/**
+	 * Write setups to a checkpoint, in insertion order
+	 *
+	 * @param writer Checkpoint writer
+	 */
+	public void writeState(CheckpointWriter writer) throws IOException {
+		List<ParetoOptimalSetup> setups = getSetups();
+		setups.sort(Comparator.comparingLong(this.sequences::get));
+		writer.writeInt(setups.size());
+		for (ParetoOptimalSetup setup : setups) {
+			writer.writeString(setup.getParameterId());
+			writer.writeDouble(setup.getParameterValue());
+			writer.writeDouble(setup.getIncidenceRateError());
+			writer.writeDouble(setup.getExposureRateError());
+		}
+	}
+
+	/**
+	 * Read setups from a checkpoint. Re-inserting them in insertion order
+	 * preserves which dominator comes first.
+	 *
+	 * @param reader Checkpoint reader
+	 */
+	public void readState(CheckpointReader reader) throws IOException {
+		this.front.clear();
+		this.sequences.clear();
+		this.nextSequence = 0;
+		this.size = 0;
+		int setups = reader.readInt();
+		for (int i = 0; i < setups; i++) {
+			String parameterId = reader.readString();
+			double parameterValue = reader.readDouble();
+			double incidenceRateError = reader.readDouble();
+			double exposureRateError = reader.readDouble();
+			insert(new ParetoOptimalSetup(parameterId, parameterValue,
+					new Pair<>(incidenceRateError, exposureRateError)));
+		}
+	}
+
+	/**
+	 * Setup A dominates Setup B?
+	 *
+	 * @param setupA Setup A
+	 * @param setupB Setup B
+	 */
+	public static boolean dominates(ParetoOptimalSetup setupA,
+			ParetoOptimalSetup setupB) {
+		double aIrE = setupA.getIncidenceRateError();
+		double aErE = setupA.getExposureRateError();
+		double bIrE = setupB.getIncidenceRateError();
+		double bErE = setupB.getExposureRateError();
+		return (aIrE <= bIrE && aErE <= bErE) && (aIrE < bIrE || aErE < bErE);
+	}
+
+	/**
+	 * Get a front entry's exposure rate error
+	 *
+	 * @param entry Front entry
+	 */
+	private static double getExposureRateError(
+			Map.Entry<Double, List<ParetoOptimalSetup>> entry) {
+		return getExposureRateError(entry.getValue());
+	}
+
+	/**
+	 * Get a bucket's exposure rate error
+	 *
+	 * @param bucket Bucket
+	 */
+	private static double getExposureRateError(
+			List<ParetoOptimalSetup> bucket) {
+		return bucket.get(0).getExposureRateError();
+	}
+
+}
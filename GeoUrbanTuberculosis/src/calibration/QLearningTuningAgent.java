@@ -1,10 +1,13 @@
 package calibration;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import datasource.CheckpointReader;
+import output.CheckpointWriter;
 import repast.simphony.random.RandomHelper;
 import repast.simphony.util.collections.Pair;
 
@@ -33,12 +36,12 @@ public class QLearningTuningAgent {
 	/**
 	 * Q-values for state-action pairs
 	 */
-	private Map<String, List<Pair<Double, Double>>> qValues;
+	private Map<String, QTable> qValues;
 
 	/**
 	 * Pareto optimal setups
 	 */
-	private List<ParetoOptimalSetup> paretoOptimalSetups;
+	private ParetoArchive paretoOptimalSetups;
 
 	/**
 	 * Epsilon parameter for epsilon-greedy action selection
@@ -75,6 +78,11 @@ public class QLearningTuningAgent {
 	 */
 	private int updateCounter;
 
+	/**
+	 * Random draws taken so far (replayed on restore)
+	 */
+	private long randomDraws;
+
 	/**
 	 * Create a new Q-learning-based tuning agent
 	 * 
@@ -88,7 +96,7 @@ public class QLearningTuningAgent {
 		this.learningRate = learningRate;
 		this.discountFactor = discountFactor;
 		this.qValues = new HashMap<>();
-		this.paretoOptimalSetups = new ArrayList<>();
+		this.paretoOptimalSetups = new ParetoArchive();
 		this.lastBestCalibrationError = Double.POSITIVE_INFINITY;
 		this.parametersTags = new ArrayList<>();
 	}
@@ -110,12 +118,8 @@ public class QLearningTuningAgent {
 			double upperBound = calibrationParameter.getUpperBound();
 			double step = 2 * tolerance * (upperBound - lowerBound);
 			double numStates = Math.round((upperBound - lowerBound) / step);
-			List<Pair<Double, Double>> actions = new ArrayList<>();
-			for (int i = 0; i <= numStates; i++) {
-				double action = lowerBound + i * step;
-				double q0 = INITIAL_Q_VALUE_ESTIMATE;
-				actions.add(new Pair<>(action, q0));
-			}
+			QTable actions = new QTable(lowerBound, step, (int) numStates + 1,
+					INITIAL_Q_VALUE_ESTIMATE);
 			this.qValues.put(parameterId, actions);
 			this.parametersTags.add(parameterId);
 		}
@@ -126,31 +130,16 @@ public class QLearningTuningAgent {
 	 * Select action (epsilon-greedy)
 	 */
 	public Pair<String, Double> selectAction() {
-		List<Pair<Double, Double>> parameterSpace = this.qValues
-				.get(this.currentParameter);
-		Pair<Double, Double> selectedPoint = null;
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
+		QTable parameterSpace = this.qValues.get(this.currentParameter);
+		double r = nextDoubleFromTo(0, 1);
 		int index = -1;
 		if (r < 1 - this.epsilon) {
-			double topValue = Double.NEGATIVE_INFINITY;
-			List<Pair<Double, Double>> ties = new ArrayList<>();
-			for (Pair<Double, Double> point : parameterSpace) {
-				double qValue = point.getSecond();
-				if (qValue > topValue) {
-					topValue = qValue;
-					ties.clear();
-					ties.add(point);
-				} else if (qValue == topValue) {
-					ties.add(point);
-				}
-			}
-			index = RandomHelper.nextIntFromTo(0, ties.size() - 1);
-			selectedPoint = ties.get(index);
+			int ties = parameterSpace.countTies();
+			index = parameterSpace.getTie(nextIntFromTo(0, ties - 1));
 		} else {
-			index = RandomHelper.nextIntFromTo(0, parameterSpace.size() - 1);
-			selectedPoint = parameterSpace.get(index);
+			index = nextIntFromTo(0, parameterSpace.size() - 1);
 		}
-		double parameterValue = selectedPoint.getFirst();
+		double parameterValue = parameterSpace.getAction(index);
 		return new Pair<>(this.currentParameter, parameterValue);
 	}
 
@@ -163,39 +152,26 @@ public class QLearningTuningAgent {
 	public void updateLearning(Pair<Double, Double> calibrationErrors,
 			Map<String, Double> tunableParameters) {
 		// Get parameter space
-		List<Pair<Double, Double>> parameterSpace = this.qValues
-				.get(this.currentParameter);
+		QTable parameterSpace = this.qValues.get(this.currentParameter);
 		// Retrieve last point
 		double lastValue = tunableParameters.get(this.currentParameter);
-		int indexLastAction = -1;
-		for (int i = 0; i < parameterSpace.size(); i++) {
-			Pair<Double, Double> point = parameterSpace.get(i);
-			double value = point.getFirst();
-			if (Math.abs(value - lastValue) < SIMILARITY_THRESHOLD) {
-				indexLastAction = i;
-				break;
-			}
+		int indexLastAction = parameterSpace.indexOf(lastValue);
+		if (indexLastAction < 0) {
+			throw new IllegalStateException(String.format(
+					"Value %s of parameter %s is not on the action grid",
+					lastValue, this.currentParameter));
 		}
-		Pair<Double, Double> lastPoint = parameterSpace.get(indexLastAction);
 		// Compute reward
 		double reward = computeReward(calibrationErrors, lastValue);
 		// Obtain old Q-value
-		double oldQ = lastPoint.getSecond();
+		double oldQ = parameterSpace.getQValue(indexLastAction);
 		// Estimate optimal future value
-		double maxQ = Double.NEGATIVE_INFINITY;
-		for (Pair<Double, Double> point : parameterSpace) {
-			double q = point.getSecond();
-			if (q >= maxQ) {
-				maxQ = q;
-			}
-		}
+		double maxQ = parameterSpace.getMaxQValue();
 		// Compute new Q-value
 		double qValue = oldQ + this.learningRate
 				* (reward + this.discountFactor * maxQ - oldQ);
 		// Update Q-value
-		lastPoint.setSecond(qValue);
-		parameterSpace.set(indexLastAction, lastPoint);
-		this.qValues.put(this.currentParameter, parameterSpace);
+		parameterSpace.setQValue(indexLastAction, qValue);
 		// Update counter
 		this.updateCounter++;
 		// Update epsilon
@@ -224,6 +200,72 @@ public class QLearningTuningAgent {
 		}
 	}
 
+	/**
+	 * Get last best calibration error
+	 */
+	public double getLastBestCalibrationError() {
+		return this.lastBestCalibrationError;
+	}
+
+	/**
+	 * Write learning state to a checkpoint
+	 *
+	 * @param writer Checkpoint writer
+	 */
+	public void writeState(CheckpointWriter writer) throws IOException {
+		writer.writeDouble(this.epsilon);
+		writer.writeDouble(this.lastBestCalibrationError);
+		writer.writeString(this.currentParameter);
+		writer.writeInt(this.updateCounter);
+		writer.writeInt(this.parametersTags.size());
+		for (String parameterId : this.parametersTags) {
+			writer.writeString(parameterId);
+			this.qValues.get(parameterId).writeState(writer);
+		}
+		this.paretoOptimalSetups.writeState(writer);
+		writer.writeInt(RandomHelper.getSeed());
+		writer.writeLong(this.randomDraws);
+	}
+
+	/**
+	 * Read learning state from a checkpoint. The agent must have been
+	 * activated on the same tunable parameters.
+	 *
+	 * @param reader Checkpoint reader
+	 */
+	public void readState(CheckpointReader reader) throws IOException {
+		this.epsilon = reader.readDouble();
+		this.lastBestCalibrationError = reader.readDouble();
+		this.currentParameter = reader.readString();
+		this.updateCounter = reader.readInt();
+		int parameters = reader.readInt();
+		if (parameters != this.parametersTags.size()) {
+			throw new IOException(String.format(
+					"Checkpoint has %d tunable parameters instead of %d",
+					parameters, this.parametersTags.size()));
+		}
+		List<String> parametersTags = new ArrayList<>();
+		for (int i = 0; i < parameters; i++) {
+			String parameterId = reader.readString();
+			QTable parameterSpace = this.qValues.get(parameterId);
+			if (parameterSpace == null) {
+				throw new IOException(
+						"Unknown tunable parameter " + parameterId);
+			}
+			parameterSpace.readState(reader);
+			parametersTags.add(parameterId);
+		}
+		this.parametersTags = parametersTags;
+		this.paretoOptimalSetups.readState(reader);
+		// Every draw advances the shared stream by one variate, so replaying
+		// the draw count restores its position
+		RandomHelper.setSeed(reader.readInt());
+		this.randomDraws = reader.readLong();
+		for (long i = 0; i < this.randomDraws; i++) {
+			RandomHelper.nextDouble();
+		}
+	}
+
 	/**
 	 * Compute reward
 	 * 
@@ -236,29 +278,18 @@ public class QLearningTuningAgent {
 			ParetoOptimalSetup currentSetup = new ParetoOptimalSetup(
 					this.currentParameter, parameterValue, calibrationErrors);
 			if (this.paretoOptimalSetups.isEmpty()) {
-				this.paretoOptimalSetups.add(currentSetup);
+				this.paretoOptimalSetups.insert(currentSetup);
 				return 0.0;
-			} else {
-				List<ParetoOptimalSetup> dominatedSolutions = new ArrayList<>();
-				for (int i = 0; i < this.paretoOptimalSetups.size(); i++) {
-					ParetoOptimalSetup paretoSetup = this.paretoOptimalSetups
-							.get(i);
-					if (dominates(currentSetup, paretoSetup)) {
-						dominatedSolutions.add(paretoSetup);
-					} else if (dominates(paretoSetup, currentSetup)) {
-						if (currentSetup.isAlmostTheSameAs(paretoSetup)) {
-							return 0.02;
-						} else {
-							return -1.0;
-						}
-					}
-				}
-				for (ParetoOptimalSetup dominatedSolution : dominatedSolutions) {
-					this.paretoOptimalSetups.remove(dominatedSolution);
-				}
-				if (!this.paretoOptimalSetups.contains(currentSetup)) {
-					this.paretoOptimalSetups.add(currentSetup);
+			} else if (this.paretoOptimalSetups.isDominated(currentSetup)) {
+				ParetoOptimalSetup paretoSetup = this.paretoOptimalSetups
+						.getFirstDominator(currentSetup);
+				if (currentSetup.isAlmostTheSameAs(paretoSetup)) {
+					return 0.02;
+				} else {
+					return -1.0;
 				}
+			} else {
+				this.paretoOptimalSetups.insert(currentSetup);
 				return 1.0;
 			}
 		} else {
@@ -287,8 +318,7 @@ public class QLearningTuningAgent {
 	private void resetCurrentParameter() {
 		String nextParameter = "";
 		do {
-			int index = RandomHelper.nextIntFromTo(0,
-					this.parametersTags.size() - 1);
+			int index = nextIntFromTo(0, this.parametersTags.size() - 1);
 			nextParameter = this.parametersTags.get(index);
 		} while (this.currentParameter.equals(nextParameter));
 		this.currentParameter = nextParameter;
@@ -296,18 +326,25 @@ public class QLearningTuningAgent {
 	}
 
 	/**
-	 * Setup A dominates Setup B?
-	 * 
-	 * @param setupA Setup A
-	 * @param setupB Setup B
+	 * Draw uniform double
+	 *
+	 * @param from Lower bound
+	 * @param to   Upper bound
+	 */
+	private double nextDoubleFromTo(double from, double to) {
+		this.randomDraws++;
+		return RandomHelper.nextDoubleFromTo(from, to);
+	}
+
+	/**
+	 * Draw uniform integer
+	 *
+	 * @param from Lower bound
+	 * @param to   Upper bound
 	 */
-	private boolean dominates(ParetoOptimalSetup setupA,
-			ParetoOptimalSetup setupB) {
-		double aIrE = setupA.getIncidenceRateError();
-		double aErE = setupA.getExposureRateError();
-		double bIrE = setupB.getIncidenceRateError();
-		double bErE = setupB.getExposureRateError();
-		return (aIrE <= bIrE && aErE <= bErE) && (aIrE < bIrE || aErE < bErE);
+	private int nextIntFromTo(int from, int to) {
+		this.randomDraws++;
+		return RandomHelper.nextIntFromTo(from, to);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package calibration;
+
+import java.io.IOException;
+import java.util.Arrays;
+import datasource.CheckpointReader;
+import output.CheckpointWriter;
+
+public class QTable {
+
+	/**
+	 * Lowest action
+	 */
+	private final double lowerBound;
+
+	/**
+	 * Step between consecutive actions
+	 */
+	private final double step;
+
+	/**
+	 * Q-values by action index
+	 */
+	private final double[] qValues;
+
+	/**
+	 * Create a new Q-table
+	 *
+	 * @param lowerBound Lowest action
+	 * @param step       Step between consecutive actions
+	 * @param actions    Number of actions
+	 * @param q0         Initial Q-value estimate
+	 */
+	public QTable(double lowerBound, double step, int actions, double q0) {
+		this.lowerBound = lowerBound;
+		this.step = step;
+		this.qValues = new double[actions];
+		Arrays.fill(this.qValues, q0);
+	}
+
+	/**
+	 * Get number of actions
+	 */
+	public int size() {
+		return this.qValues.length;
+	}
+
+	/**
+	 * Get action
+	 *
+	 * @param index Action index
+	 */
+	public double getAction(int index) {
+		return this.lowerBound + index * this.step;
+	}
+
+	/**
+	 * Get action index (-1 if the value is not on the grid)
+	 *
+	 * @param value Parameter value
+	 */
+	public int indexOf(double value) {
+		int index = (int) Math.round((value - this.lowerBound) / this.step);
+		double distance = Math.abs(getAction(index) - value);
+		if (index < 0 || index >= this.qValues.length
+				|| distance >= QLearningTuningAgent.SIMILARITY_THRESHOLD) {
+			return -1;
+		}
+		return index;
+	}
+
+	/**
+	 * Get Q-value
+	 *
+	 * @param index Action index
+	 */
+	public double getQValue(int index) {
+		return this.qValues[index];
+	}
+
+	/**
+	 * Set Q-value
+	 *
+	 * @param index  Action index
+	 * @param qValue Q-value
+	 */
+	public void setQValue(int index, double qValue) {
+		this.qValues[index] = qValue;
+	}
+
+	/**
+	 * Get top Q-value
+	 */
+	public double getMaxQValue() {
+		double maxQ = Double.NEGATIVE_INFINITY;
+		for (double q : this.qValues) {
+			if (q >= maxQ) {
+				maxQ = q;
+			}
+		}
+		return maxQ;
+	}
+
+	/**
+	 * Count actions tied at the top Q-value
+	 */
+	public int countTies() {
+		double maxQ = getMaxQValue();
+		int ties = 0;
+		for (double q : this.qValues) {
+			if (q == maxQ) {
+				ties++;
+			}
+		}
+		return ties;
+	}
+
+	/**
+	 * Get index of the k-th action tied at the top Q-value
+	 *
+	 * @param k Tie rank (zero-based)
+	 */
+	public int getTie(int k) {
+		double maxQ = getMaxQValue();
+		for (int i = 0; i < this.qValues.length; i++) {
+			if (this.qValues[i] == maxQ && k-- == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Write Q-values to a checkpoint
+	 *
+	 * @param writer Checkpoint writer
+	 */
+	public void writeState(CheckpointWriter writer) throws IOException {
+		writer.writeInt(this.qValues.length);
+		for (double q : this.qValues) {
+			writer.writeDouble(q);
+		}
+	}
+
+	/**
+	 * Read Q-values from a checkpoint
+	 *
+	 * @param reader Checkpoint reader
+	 */
+	public void readState(CheckpointReader reader) throws IOException {
+		int actions = reader.readInt();
+		if (actions != this.qValues.length) {
+			throw new IOException(String.format(
+					"Checkpoint has %d actions instead of %d", actions,
+					this.qValues.length));
+		}
+		for (int i = 0; i < actions; i++) {
+			this.qValues[i] = reader.readDouble();
+		}
+	}
+
+}
@@ -22,6 +22,26 @@ public final class SourceFeatures {
 	 */
 	public static final int CALIBRATION_UPPER_BOUND_COLUMN = 3;
 
+	/**
+	 * Sweep setup database - parameter id column
+	 */
+	public static final int SWEEP_SETUP_PARAMETER_ID_COLUMN = 0;
+
+	/**
+	 * Sweep setup database - lower bound column
+	 */
+	public static final int SWEEP_SETUP_LOWER_BOUND_COLUMN = 1;
+
+	/**
+	 * Sweep setup database - upper bound column
+	 */
+	public static final int SWEEP_SETUP_UPPER_BOUND_COLUMN = 2;
+
+	/**
+	 * Sweep setup database - levels column
+	 */
+	public static final int SWEEP_SETUP_LEVELS_COLUMN = 3;
+
 	/**
 	 * Private constructor
 	 */
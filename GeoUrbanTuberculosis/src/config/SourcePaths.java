@@ -7,6 +7,36 @@ public final class SourcePaths {
 	 */
 	public static final String CALIBRATION_SETUP_DATABASE = "./data/calibration-setup.csv";
 
+	/**
+	 * Sweep setup database
+	 */
+	public static final String SWEEP_SETUP_DATABASE = "./data/sweep-setup.csv";
+
+	/**
+	 * Model parameters database
+	 */
+	public static final String PARAMETERS_DATABASE = "./GeoUrbanTuberculosis.rs/parameters.xml";
+
+	/**
+	 * Evaluation cache directory
+	 */
+	public static final String EVALUATION_CACHE = "./output/evaluation-cache";
+
+	/**
+	 * Calibration checkpoint
+	 */
+	public static final String CALIBRATION_CHECKPOINT = "./output/calibration.checkpoint";
+
+	/**
+	 * Compartment time series
+	 */
+	public static final String TIME_SERIES = "./output/time-series.bin";
+
+	/**
+	 * Consolidated parameter sweep results
+	 */
+	public static final String SWEEP_RESULTS = "./output/sweep-results.csv";
+
 	/**
 	 * Private constructor
 	 */
@@ -0,0 +1,122 @@
+package datasource;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import output.CheckpointWriter;
+
+public class CheckpointReader implements Closeable {
+
+	/**
+	 * File channel
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Read buffer
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Create a new checkpoint reader
+	 *
+	 * @param path Checkpoint path
+	 */
+	public CheckpointReader(String path) throws IOException {
+		this.channel = FileChannel.open(Paths.get(path),
+				StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocateDirect(CheckpointWriter.BUFFER_SIZE);
+		this.buffer.flip();
+		int magic = readInt();
+		int version = readInt();
+		if (magic != CheckpointWriter.MAGIC
+				|| version != CheckpointWriter.VERSION) {
+			this.channel.close();
+			throw new IOException(String.format(
+					"%s is not a version %d checkpoint", path,
+					CheckpointWriter.VERSION));
+		}
+	}
+
+	/**
+	 * Read boolean
+	 */
+	public boolean readBoolean() throws IOException {
+		ensureAvailable(1);
+		return this.buffer.get() != 0;
+	}
+
+	/**
+	 * Read integer
+	 */
+	public int readInt() throws IOException {
+		ensureAvailable(Integer.BYTES);
+		return this.buffer.getInt();
+	}
+
+	/**
+	 * Read long
+	 */
+	public long readLong() throws IOException {
+		ensureAvailable(Long.BYTES);
+		return this.buffer.getLong();
+	}
+
+	/**
+	 * Read double
+	 */
+	public double readDouble() throws IOException {
+		ensureAvailable(Double.BYTES);
+		return this.buffer.getDouble();
+	}
+
+	/**
+	 * Read string
+	 */
+	public String readString() throws IOException {
+		byte[] bytes = new byte[readInt()];
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!this.buffer.hasRemaining()) {
+				ensureAvailable(1);
+			}
+			int length = Math.min(this.buffer.remaining(),
+					bytes.length - offset);
+			this.buffer.get(bytes, offset, length);
+			offset += length;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Close
+	 */
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Refill the buffer until enough bytes are available
+	 *
+	 * @param bytes Bytes to read
+	 */
+	private void ensureAvailable(int bytes) throws IOException {
+		if (this.buffer.remaining() >= bytes) {
+			return;
+		}
+		this.buffer.compact();
+		while (this.buffer.position() < bytes) {
+			if (this.channel.read(this.buffer) < 0) {
+				throw new EOFException("Truncated checkpoint");
+			}
+		}
+		this.buffer.flip();
+	}
+
+}
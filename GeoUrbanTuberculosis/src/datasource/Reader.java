@@ -2,11 +2,22 @@ package datasource;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 import calibration.CalibrationParameter;
 import config.SourceFeatures;
+import sweep.SweepParameter;
 
 public final class Reader {
 
@@ -15,6 +26,21 @@ public final class Reader {
 	 */
 	private static final String SOURCE_SPLIT_REGEX = ",";
 
+	/**
+	 * Parameters source - parameter tag
+	 */
+	private static final String PARAMETER_TAG = "parameter";
+
+	/**
+	 * Parameters source - name attribute
+	 */
+	private static final String PARAMETER_NAME_ATTRIBUTE = "name";
+
+	/**
+	 * Parameters source - default value attribute
+	 */
+	private static final String PARAMETER_DEFAULT_VALUE_ATTRIBUTE = "defaultValue";
+
 	/**
 	 * Private constructor
 	 */
@@ -72,4 +98,85 @@ public final class Reader {
 		return setup;
 	}
 
+	/**
+	 * Read sweep setup
+	 * 
+	 * @param filename File name
+	 */
+	public static List<SweepParameter> readSweepSetup(String filename) {
+		List<SweepParameter> setup = new ArrayList<>();
+		File file = new File(filename);
+		try (Scanner scanner = new Scanner(file)) {
+			boolean first = true;
+			while (scanner.hasNextLine()) {
+				String data = scanner.nextLine();
+				if (first) {
+					first = false;
+				} else {
+					String[] elements = data.split(SOURCE_SPLIT_REGEX);
+					String parameterId = "";
+					double lowerBound = 0.0;
+					double upperBound = 0.0;
+					int levels = 1;
+					for (int i = 0; i < elements.length; i++) {
+						switch (i) {
+						case SourceFeatures.SWEEP_SETUP_PARAMETER_ID_COLUMN:
+							parameterId = elements[i];
+							break;
+						case SourceFeatures.SWEEP_SETUP_LOWER_BOUND_COLUMN:
+							lowerBound = Double.parseDouble(elements[i]);
+							break;
+						case SourceFeatures.SWEEP_SETUP_UPPER_BOUND_COLUMN:
+							upperBound = Double.parseDouble(elements[i]);
+							break;
+						case SourceFeatures.SWEEP_SETUP_LEVELS_COLUMN:
+							levels = Integer.parseInt(elements[i]);
+							break;
+						default:
+							break;
+						}
+					}
+					setup.add(new SweepParameter(parameterId, lowerBound,
+							upperBound, levels));
+				}
+			}
+		} catch (FileNotFoundException fnfe) {
+			fnfe.printStackTrace();
+		}
+		return setup;
+	}
+
+	/**
+	 * Read the default values of the numeric model parameters
+	 * 
+	 * @param filename File name
+	 */
+	public static Map<String, Double> readParameters(String filename) {
+		Map<String, Double> parameters = new HashMap<>();
+		File file = new File(filename);
+		try {
+			DocumentBuilder builder = DocumentBuilderFactory.newInstance()
+					.newDocumentBuilder();
+			Document document = builder.parse(file);
+			NodeList nodes = document.getElementsByTagName(PARAMETER_TAG);
+			for (int i = 0; i < nodes.getLength(); i++) {
+				Element element = (Element) nodes.item(i);
+				String parameterId = element
+						.getAttribute(PARAMETER_NAME_ATTRIBUTE);
+				String defaultValue = element
+						.getAttribute(PARAMETER_DEFAULT_VALUE_ATTRIBUTE);
+				try {
+					parameters.put(parameterId,
+							Double.parseDouble(defaultValue));
+				} catch (NumberFormatException nfe) {
+					// Non-numeric defaults (e.g. an unset seed) are skipped
+				}
+			}
+		} catch (ParserConfigurationException | SAXException
+				| IOException e) {
+			e.printStackTrace();
+		}
+		return parameters;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,491 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Sparse index of the city's occupied cells. Cells are identified by packed
+ * keys (x * width + y) and mapped through an open-addressing hash table to
+ * compact cells, which are allocated on first occupation and released when
+ * emptied, so memory scales with the population rather than the city's
+ * area.
+ */
+public class CellIndex {
+
+	/**
+	 * Initial susceptible capacity per cell
+	 */
+	private static final int INITIAL_CELL_CAPACITY = 8;
+
+	/**
+	 * Empty hash table entry
+	 */
+	private static final long EMPTY_KEY = -1;
+
+	/**
+	 * Fibonacci hashing multiplier
+	 */
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * City's length
+	 */
+	private final int length;
+
+	/**
+	 * City's width
+	 */
+	private final int width;
+
+	/**
+	 * Population store
+	 */
+	private final Population population;
+
+	/**
+	 * Cell keys by citizen id (-1 if not placed)
+	 */
+	private final long[] cellKeys;
+
+	/**
+	 * Cells by citizen id (-1 if not placed)
+	 */
+	private final int[] cells;
+
+	/**
+	 * Slots in the cell's susceptible list by citizen id (-1 if absent)
+	 */
+	private final int[] slots;
+
+	/**
+	 * Hash table's cell keys (-1 if empty)
+	 */
+	private final long[] tableKeys;
+
+	/**
+	 * Hash table's cells
+	 */
+	private final int[] tableCells;
+
+	/**
+	 * Bits of the hash table's capacity
+	 */
+	private final int tableBits;
+
+	/**
+	 * Keys by cell
+	 */
+	private final long[] keys;
+
+	/**
+	 * Occupant counts by cell
+	 */
+	private final int[] occupantCounts;
+
+	/**
+	 * Infected counts by cell
+	 */
+	private final int[] infectedCounts;
+
+	/**
+	 * Susceptible counts by cell
+	 */
+	private final int[] susceptibleCounts;
+
+	/**
+	 * Susceptible citizens by cell
+	 */
+	private final int[][] susceptibles;
+
+	/**
+	 * Particle expelling citizens' counts by cell
+	 */
+	private final int[] expellerCounts;
+
+	/**
+	 * Cells with at least one particle expelling citizen
+	 */
+	private final int[] activeCells;
+
+	/**
+	 * Slots in the active cells' list by cell (-1 if absent)
+	 */
+	private final int[] activeSlots;
+
+	/**
+	 * Released cells, reused last-in first-out
+	 */
+	private final int[] freeCells;
+
+	/**
+	 * Number of released cells
+	 */
+	private int freeCellCount;
+
+	/**
+	 * Number of active cells
+	 */
+	private int activeCellCount;
+
+	/**
+	 * Create a new cell index
+	 *
+	 * @param length     City's length
+	 * @param width      City's width
+	 * @param population Population store
+	 */
+	public CellIndex(int length, int width, Population population) {
+		this.length = length;
+		this.width = width;
+		this.population = population;
+		// Every occupied cell holds a citizen
+		int capacity = Math.max(1, population.size());
+		this.cellKeys = new long[population.size()];
+		this.cells = new int[population.size()];
+		this.slots = new int[population.size()];
+		this.tableBits = 64 - Long.numberOfLeadingZeros(2L * capacity - 1);
+		this.tableKeys = new long[1 << this.tableBits];
+		this.tableCells = new int[1 << this.tableBits];
+		this.keys = new long[capacity];
+		this.occupantCounts = new int[capacity];
+		this.infectedCounts = new int[capacity];
+		this.susceptibleCounts = new int[capacity];
+		this.susceptibles = new int[capacity][];
+		this.expellerCounts = new int[capacity];
+		this.activeCells = new int[capacity];
+		this.activeSlots = new int[capacity];
+		this.freeCells = new int[capacity];
+		reset();
+	}
+
+	/**
+	 * Get key of the cell containing a location
+	 *
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 */
+	public long getCellKey(double x, double y) {
+		long cellX = Math.floorMod((long) Math.floor(x), this.length);
+		long cellY = Math.floorMod((long) Math.floor(y), this.width);
+		return cellX * this.width + cellY;
+	}
+
+	/**
+	 * Get citizen's cell (-1 if not placed)
+	 *
+	 * @param id Citizen id
+	 */
+	public int getCell(int id) {
+		return this.cells[id];
+	}
+
+	/**
+	 * Get number of occupied cells
+	 */
+	public int getOccupiedCellCount() {
+		return this.keys.length - this.freeCellCount;
+	}
+
+	/**
+	 * Get infected count
+	 *
+	 * @param cell Cell
+	 */
+	public int getInfectedCount(int cell) {
+		return this.infectedCounts[cell];
+	}
+
+	/**
+	 * Get susceptible count
+	 *
+	 * @param cell Cell
+	 */
+	public int getSusceptibleCount(int cell) {
+		return this.susceptibleCounts[cell];
+	}
+
+	/**
+	 * Get susceptible citizen
+	 *
+	 * @param cell Cell
+	 * @param i    Position in the cell's susceptible list
+	 */
+	public int getSusceptible(int cell, int i) {
+		return this.susceptibles[cell][i];
+	}
+
+	/**
+	 * Get particle expelling citizens' count
+	 *
+	 * @param cell Cell
+	 */
+	public int getExpellerCount(int cell) {
+		return this.expellerCounts[cell];
+	}
+
+	/**
+	 * Get number of cells with particle expelling citizens
+	 */
+	public int getActiveCellCount() {
+		return this.activeCellCount;
+	}
+
+	/**
+	 * Get cell with particle expelling citizens
+	 *
+	 * @param i Position in the active cells' list
+	 */
+	public int getActiveCell(int i) {
+		return this.activeCells[i];
+	}
+
+	/**
+	 * Set whether the citizen is expelling particles
+	 *
+	 * @param id        Citizen id
+	 * @param expelling Is expelling?
+	 */
+	public void setExpelling(int id, boolean expelling) {
+		if (this.population.hasFlag(id, Population.EXPELLING) == expelling) {
+			return;
+		}
+		this.population.setFlag(id, Population.EXPELLING, expelling);
+		int cell = this.cells[id];
+		if (cell >= 0) {
+			updateExpellers(cell, expelling ? 1 : -1);
+		}
+	}
+
+	/**
+	 * Move citizen to cell
+	 *
+	 * @param id      Citizen id
+	 * @param cellKey Cell key
+	 */
+	public void moveTo(int id, long cellKey) {
+		if (this.cellKeys[id] == cellKey) {
+			return;
+		}
+		Compartment compartment = this.population.getCompartment(id);
+		boolean expelling = this.population.hasFlag(id, Population.EXPELLING);
+		int oldCell = this.cells[id];
+		if (oldCell >= 0) {
+			remove(id, oldCell, compartment);
+			if (expelling) {
+				updateExpellers(oldCell, -1);
+			}
+			release(oldCell);
+		}
+		int cell = acquire(cellKey);
+		this.cellKeys[id] = cellKey;
+		this.cells[id] = cell;
+		add(id, cell, compartment);
+		if (expelling) {
+			updateExpellers(cell, 1);
+		}
+	}
+
+	/**
+	 * Unplace every citizen and stop their particle expelling
+	 */
+	public void clear() {
+		reset();
+		this.population.clearFlags(Population.EXPELLING);
+	}
+
+	/**
+	 * Rebuild the index from the citizens' locations. Citizens are placed in
+	 * id order, so cell lists do not depend on earlier moves.
+	 */
+	public void rebuild() {
+		Population population = this.population;
+		reset();
+		for (int id = 0; id < this.cells.length; id++) {
+			long cellKey = getCellKey(population.getX(id), population.getY(id));
+			int cell = acquire(cellKey);
+			this.cellKeys[id] = cellKey;
+			this.cells[id] = cell;
+			add(id, cell, population.getCompartment(id));
+			if (population.hasFlag(id, Population.EXPELLING)) {
+				updateExpellers(cell, 1);
+			}
+		}
+	}
+
+	/**
+	 * Handle a compartment transition
+	 *
+	 * @param id   Citizen id
+	 * @param from Previous compartment
+	 * @param to   New compartment
+	 */
+	public void onTransition(int id, Compartment from, Compartment to) {
+		int cell = this.cells[id];
+		if (cell < 0 || from == to) {
+			return;
+		}
+		remove(id, cell, from);
+		add(id, cell, to);
+	}
+
+	/**
+	 * Unplace every citizen and release every cell
+	 */
+	private void reset() {
+		Arrays.fill(this.cellKeys, -1);
+		Arrays.fill(this.cells, -1);
+		Arrays.fill(this.slots, -1);
+		Arrays.fill(this.tableKeys, EMPTY_KEY);
+		Arrays.fill(this.occupantCounts, 0);
+		Arrays.fill(this.infectedCounts, 0);
+		Arrays.fill(this.susceptibleCounts, 0);
+		Arrays.fill(this.expellerCounts, 0);
+		Arrays.fill(this.activeSlots, -1);
+		this.activeCellCount = 0;
+		// Cells are handed out in ascending order after a reset
+		int capacity = this.freeCells.length;
+		for (int i = 0; i < capacity; i++) {
+			this.freeCells[i] = capacity - 1 - i;
+		}
+		this.freeCellCount = capacity;
+	}
+
+	/**
+	 * Acquire the cell for a key as a new occupant, allocating the cell on
+	 * its first occupation
+	 *
+	 * @param cellKey Cell key
+	 * @return Cell
+	 */
+	private int acquire(long cellKey) {
+		long[] tableKeys = this.tableKeys;
+		int mask = tableKeys.length - 1;
+		int i = hash(cellKey);
+		while (tableKeys[i] != EMPTY_KEY) {
+			if (tableKeys[i] == cellKey) {
+				int cell = this.tableCells[i];
+				this.occupantCounts[cell]++;
+				return cell;
+			}
+			i = (i + 1) & mask;
+		}
+		int cell = this.freeCells[--this.freeCellCount];
+		tableKeys[i] = cellKey;
+		this.tableCells[i] = cell;
+		this.keys[cell] = cellKey;
+		this.occupantCounts[cell] = 1;
+		return cell;
+	}
+
+	/**
+	 * Release an occupant of a cell, freeing the cell once it is empty
+	 *
+	 * @param cell Cell
+	 */
+	private void release(int cell) {
+		if (--this.occupantCounts[cell] > 0) {
+			return;
+		}
+		long[] tableKeys = this.tableKeys;
+		int mask = tableKeys.length - 1;
+		int i = hash(this.keys[cell]);
+		while (tableKeys[i] != this.keys[cell]) {
+			i = (i + 1) & mask;
+		}
+		// Shift back later entries of the probe run into the freed entry
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (tableKeys[j] == EMPTY_KEY) {
+				break;
+			}
+			int home = hash(tableKeys[j]);
+			boolean reachable = (i <= j) ? (home <= i || home > j)
+					: (home <= i && home > j);
+			if (reachable) {
+				tableKeys[i] = tableKeys[j];
+				this.tableCells[i] = this.tableCells[j];
+				i = j;
+			}
+		}
+		tableKeys[i] = EMPTY_KEY;
+		this.freeCells[this.freeCellCount++] = cell;
+	}
+
+	/**
+	 * Get a cell key's home entry in the hash table
+	 *
+	 * @param cellKey Cell key
+	 */
+	private int hash(long cellKey) {
+		return (int) ((cellKey * HASH_MULTIPLIER) >>> (64 - this.tableBits));
+	}
+
+	/**
+	 * Update particle expelling citizens' count
+	 *
+	 * @param cell  Cell
+	 * @param delta Delta
+	 */
+	private void updateExpellers(int cell, int delta) {
+		int count = this.expellerCounts[cell] + delta;
+		this.expellerCounts[cell] = count;
+		if (count == 1 && delta > 0) {
+			this.activeSlots[cell] = this.activeCellCount;
+			this.activeCells[this.activeCellCount++] = cell;
+		} else if (count == 0) {
+			int slot = this.activeSlots[cell];
+			int moved = this.activeCells[--this.activeCellCount];
+			this.activeCells[slot] = moved;
+			this.activeSlots[moved] = slot;
+			this.activeSlots[cell] = -1;
+		}
+	}
+
+	/**
+	 * Add citizen to cell counters
+	 *
+	 * @param id          Citizen id
+	 * @param cell        Cell
+	 * @param compartment Compartment
+	 */
+	private void add(int id, int cell, Compartment compartment) {
+		if (compartment == Compartment.INFECTED) {
+			this.infectedCounts[cell]++;
+		} else if (compartment == Compartment.SUSCEPTIBLE) {
+			int[] members = this.susceptibles[cell];
+			int size = this.susceptibleCounts[cell];
+			if (members == null) {
+				members = new int[INITIAL_CELL_CAPACITY];
+				this.susceptibles[cell] = members;
+			} else if (size == members.length) {
+				members = Arrays.copyOf(members, size * 2);
+				this.susceptibles[cell] = members;
+			}
+			members[size] = id;
+			this.slots[id] = size;
+			this.susceptibleCounts[cell] = size + 1;
+		}
+	}
+
+	/**
+	 * Remove citizen from cell counters
+	 *
+	 * @param id          Citizen id
+	 * @param cell        Cell
+	 * @param compartment Compartment
+	 */
+	private void remove(int id, int cell, Compartment compartment) {
+		if (compartment == Compartment.INFECTED) {
+			this.infectedCounts[cell]--;
+		} else if (compartment == Compartment.SUSCEPTIBLE) {
+			int[] members = this.susceptibles[cell];
+			int last = --this.susceptibleCounts[cell];
+			int slot = this.slots[id];
+			int moved = members[last];
+			members[slot] = moved;
+			this.slots[moved] = slot;
+			this.slots[id] = -1;
+		}
+	}
+
+}
@@ -1,20 +1,10 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.List;
-import calibration.Calibrator;
-import repast.simphony.engine.environment.RunEnvironment;
-import repast.simphony.engine.schedule.ISchedulableAction;
-import repast.simphony.engine.schedule.ISchedule;
-import repast.simphony.engine.schedule.ScheduledMethod;
-import repast.simphony.query.space.grid.GridCell;
-import repast.simphony.query.space.grid.GridCellNgh;
-import repast.simphony.random.RandomHelper;
+import java.util.SplittableRandom;
 import repast.simphony.space.continuous.NdPoint;
-import repast.simphony.space.grid.GridPoint;
 import repast.simphony.util.collections.Pair;
-import simulation.EventScheduler;
-import simulation.SimulationBuilder;
+import simulation.ParametersAdapter;
+import simulation.World;
 import util.TickConverter;
 
 public class Citizen {
@@ -35,118 +25,82 @@ public class Citizen {
 	public static final double DISPLACEMENT_PER_STEP = 1;
 
 	/**
-	 * Household
+	 * Cell-level exposure sweep flag (one exposure sweep per tick instead of
+	 * one particle expelling action per infected citizen)
 	 */
-	private NdPoint household;
+	public static final boolean EXPOSURE_SWEEP_FLAG = false;
 
 	/**
-	 * Workplace
+	 * Movement sweep flag (one movement sweep per step interval instead of
+	 * one recurring step action per citizen). The sweep draws steps from its
+	 * own stream, so enabling it changes the trajectories for a given seed.
 	 */
-	private NdPoint workplace;
+	public static final boolean MOVEMENT_SWEEP_FLAG = false;
 
 	/**
-	 * Wake up time
+	 * Citizen id
 	 */
-	private double wakeUpTime;
+	private int id;
 
 	/**
-	 * Returning home time
+	 * Reference to world
 	 */
-	private double returningHomeTime;
+	private World world;
 
 	/**
-	 * Compartment
+	 * Reference to population store
 	 */
-	private Compartment compartment;
+	private Population population;
 
 	/**
-	 * Was the citizen initially exposed to the disease?
+	 * Random stream
 	 */
-	private boolean wasInitiallyExposed;
-
-	/**
-	 * Is the citizen immunosuppressed?
-	 */
-	private boolean isImmunosuppressed;
-
-	/**
-	 * Does the citizen smoke?
-	 */
-	private boolean smokes;
-
-	/**
-	 * Does the citizen drink alcohol?
-	 */
-	private boolean drinksAlcohol;
-
-	/**
-	 * Has the citizen notified the infection?
-	 */
-	private boolean hasNotifiedInfection;
-
-	/**
-	 * Has the citizen notified the exposure?
-	 */
-	private boolean hasNotifiedExposure;
-
-	/**
-	 * Reference to simulation builder
-	 */
-	private SimulationBuilder simulationBuilder;
-
-	/**
-	 * Scheduled particle expelling action
-	 */
-	private ISchedulableAction expelAction;
-
-	/**
-	 * Scheduled actions
-	 */
-	private List<ISchedulableAction> scheduledActions;
+	private SplittableRandom random;
 
 	/**
 	 * Create a new citizen agent
 	 * 
-	 * @param simulationBuilder   Simulation builder
+	 * @param world               World
+	 * @param id                  Citizen id
 	 * @param wasInitiallyExposed Was the citizen initially exposed to the
 	 *                            disease?
 	 */
-	public Citizen(SimulationBuilder simulationBuilder,
-			boolean wasInitiallyExposed) {
-		this.simulationBuilder = simulationBuilder;
-		this.wasInitiallyExposed = wasInitiallyExposed;
-		this.scheduledActions = new ArrayList<>();
-		this.compartment = Compartment.SUSCEPTIBLE;
+	public Citizen(World world, int id, boolean wasInitiallyExposed) {
+		this.world = world;
+		this.id = id;
+		this.population = world.getPopulation();
+		this.population.setFlag(id, Population.INITIALLY_EXPOSED,
+				wasInitiallyExposed);
+		this.population.setCompartment(id, Compartment.SUSCEPTIBLE);
 	}
 
 	/**
-	 * Initialize
+	 * Initialize. The world clears scheduled events, cell placements and
+	 * notification flags in bulk beforehand.
 	 */
-	@ScheduledMethod(start = 0, interval = Calibrator.TICKS_PER_RUN, priority = 1)
 	public void init() {
-		this.wakeUpTime = Randomizer.getRandomWakeUpTime();
-		this.returningHomeTime = Randomizer.getRandomReturningHomeTime();
-		this.isImmunosuppressed = Randomizer.getRandomImmunodeficiency(
-				this.simulationBuilder.parametersAdapter);
-		this.smokes = Randomizer
-				.getRandomSmoker(this.simulationBuilder.parametersAdapter);
-		this.drinksAlcohol = Randomizer.getRandomAlcoholDrinker(
-				this.simulationBuilder.parametersAdapter);
-		this.hasNotifiedExposure = false;
-		this.hasNotifiedInfection = false;
-		unscheduleProgrammedEvents();
+		ParametersAdapter parametersAdapter = this.world.getParametersAdapter();
+		Population population = this.population;
+		population.setWakeUpTime(this.id,
+				Randomizer.getRandomWakeUpTime(this.random));
+		population.setReturningHomeTime(this.id,
+				Randomizer.getRandomReturningHomeTime(this.random));
+		population.setFlag(this.id, Population.IMMUNOSUPPRESSED, Randomizer
+				.getRandomImmunodeficiency(this.random, parametersAdapter));
+		population.setFlag(this.id, Population.SMOKER,
+				Randomizer.getRandomSmoker(this.random, parametersAdapter));
+		population.setFlag(this.id, Population.ALCOHOL_DRINKER, Randomizer
+				.getRandomAlcoholDrinker(this.random, parametersAdapter));
 	}
 
 	/**
-	 * Start
+	 * Start. The world places citizens at their households in bulk
+	 * afterwards.
 	 */
-	@ScheduledMethod(start = 1, interval = Calibrator.TICKS_PER_RUN
-			+ Calibrator.TICKS_BETWEEN_RUNS)
 	public void start() {
 		initDisease();
 		assignReferenceLocations();
 		scheduleRecurringEvents();
-		goHome();
 	}
 
 	/**
@@ -167,21 +121,24 @@ public class Citizen {
 	 * Move to workplace
 	 */
 	public void goWork() {
-		goTo(this.workplace);
+		this.population.setFlag(this.id, Population.WALKING, true);
+		goTo(this.population.getWorkplaceX(this.id),
+				this.population.getWorkplaceY(this.id));
 	}
 
 	/**
 	 * Move to household
 	 */
 	public void goHome() {
-		goTo(this.household);
+		goTo(this.population.getHouseholdX(this.id),
+				this.population.getHouseholdY(this.id));
 	}
 
 	/**
 	 * Transition to the susceptible compartment
 	 */
 	public void transitionToSusceptible() {
-		this.compartment = Compartment.SUSCEPTIBLE;
+		setCompartment(Compartment.SUSCEPTIBLE);
 	}
 
 	/**
@@ -190,23 +147,23 @@ public class Citizen {
 	 * @param isInitialSetup Is initial setup?
 	 */
 	public void transitionToExposed(boolean isInitialSetup) {
-		this.compartment = Compartment.EXPOSED;
+		setCompartment(Compartment.EXPOSED);
 		// Determine disease course
-		if (Randomizer.isGettingInfected(this,
-				this.simulationBuilder.parametersAdapter) || isInitialSetup) {
-			double incubationPeriod = Randomizer.getRandomIncubationPeriod();
+		if (Randomizer.isGettingInfected(this.random, this.population,
+				this.id, this.world.getParametersAdapter()) || isInitialSetup) {
+			double incubationPeriod = Randomizer
+					.getRandomIncubationPeriod(this.random);
 			double ticks = TickConverter.daysToTicks(incubationPeriod);
-			EventScheduler eventScheduler = EventScheduler.getInstance();
-			ISchedulableAction action = eventScheduler
-					.scheduleOneTimeEvent(ticks, this, "transitionToInfected");
-			this.scheduledActions.add(action);
+			this.world.scheduleOneTimeEvent(ticks, this,
+					CitizenEvent.TRANSITION_TO_INFECTED);
 		} else {
 			transitionToSusceptible();
 		}
 		// Notify exposure
-		if (!this.hasNotifiedExposure) {
-			this.simulationBuilder.outputManager.onNewExposure();
-			this.hasNotifiedExposure = true;
+		if (!this.population.hasFlag(this.id, Population.NOTIFIED_EXPOSURE)) {
+			this.world.getOutputManager().onNewExposure();
+			this.population.setFlag(this.id, Population.NOTIFIED_EXPOSURE,
+					true);
 		}
 	}
 
@@ -214,23 +171,24 @@ public class Citizen {
 	 * Transition to the infected compartment
 	 */
 	public void transitionToInfected() {
-		this.compartment = Compartment.INFECTED;
+		setCompartment(Compartment.INFECTED);
 		// Schedule particle expelling
-		EventScheduler eventScheduler = EventScheduler.getInstance();
-		this.expelAction = eventScheduler.scheduleRecurringEvent(1, this,
-				PARTICLE_EXPELLING_INTERVAL, "expelParticles");
-		this.scheduledActions.add(this.expelAction);
+		this.world.getCellIndex().setExpelling(this.id, true);
+		if (!EXPOSURE_SWEEP_FLAG) {
+			this.world.scheduleRecurringEvent(1, this,
+					PARTICLE_EXPELLING_INTERVAL, CitizenEvent.EXPEL_PARTICLES);
+		}
 		// Schedule diagnosis
 		double daysToDiagnosis = Randomizer.getRandomDaysToDiagnosis(
-				this.simulationBuilder.parametersAdapter);
+				this.random, this.world.getParametersAdapter());
 		double ticks = TickConverter.daysToTicks(daysToDiagnosis);
-		ISchedulableAction action = eventScheduler.scheduleOneTimeEvent(ticks,
-				this, "transitionToOnTreament");
-		this.scheduledActions.add(action);
+		this.world.scheduleOneTimeEvent(ticks, this,
+				CitizenEvent.TRANSITION_TO_ON_TREATMENT);
 		// Notify infection
-		if (!this.hasNotifiedInfection) {
-			this.simulationBuilder.outputManager.onNewInfection();
-			this.hasNotifiedInfection = true;
+		if (!this.population.hasFlag(this.id, Population.NOTIFIED_INFECTION)) {
+			this.world.getOutputManager().onNewInfection();
+			this.population.setFlag(this.id, Population.NOTIFIED_INFECTION,
+					true);
 		}
 	}
 
@@ -238,21 +196,22 @@ public class Citizen {
 	 * Transition to the on treatment compartment
 	 */
 	public void transitionToOnTreament() {
-		this.compartment = Compartment.ON_TREATMENT;
+		setCompartment(Compartment.ON_TREATMENT);
 		// Unschedule particle expelling
-		unscheduleAction(this.expelAction);
-		this.scheduledActions.remove(this.expelAction);
+		this.world.getCellIndex().setExpelling(this.id, false);
+		if (!EXPOSURE_SWEEP_FLAG) {
+			this.world.unscheduleEvent(this, CitizenEvent.EXPEL_PARTICLES);
+		}
 		// Schedule treatment dropout or recovery
-		if (Randomizer.isDroppingOutTreatment(
-				this.simulationBuilder.parametersAdapter)) {
+		if (Randomizer.isDroppingOutTreatment(this.random,
+				this.world.getParametersAdapter())) {
 			transitionToInfected();
 		} else {
-			double treatmentDuration = Randomizer.getRandomTreatmentDuration();
+			double treatmentDuration = Randomizer
+					.getRandomTreatmentDuration(this.random);
 			double ticks = TickConverter.daysToTicks(treatmentDuration);
-			EventScheduler eventScheduler = EventScheduler.getInstance();
-			ISchedulableAction action = eventScheduler
-					.scheduleOneTimeEvent(ticks, this, "transitionToImmune");
-			this.scheduledActions.add(action);
+			this.world.scheduleOneTimeEvent(ticks, this,
+					CitizenEvent.TRANSITION_TO_IMMUNE);
 		}
 	}
 
@@ -260,128 +219,135 @@ public class Citizen {
 	 * Transition to the immune compartment
 	 */
 	public void transitionToImmune() {
-		this.compartment = Compartment.IMMUNE;
+		setCompartment(Compartment.IMMUNE);
 		// Schedule full recovery
-		double daysToFullRecovery = Randomizer.getRandomDaysToFullRecovery();
+		double daysToFullRecovery = Randomizer
+				.getRandomDaysToFullRecovery(this.random);
 		double ticks = TickConverter.daysToTicks(daysToFullRecovery);
-		EventScheduler eventScheduler = EventScheduler.getInstance();
-		ISchedulableAction action = eventScheduler.scheduleOneTimeEvent(ticks,
-				this, "transitionToSusceptible");
-		this.scheduledActions.add(action);
+		this.world.scheduleOneTimeEvent(ticks, this,
+				CitizenEvent.TRANSITION_TO_SUSCEPTIBLE);
+	}
+
+	/**
+	 * Seed random stream
+	 * 
+	 * @param replicaSeed Replica seed
+	 */
+	public void seedRandom(long replicaSeed) {
+		this.random = RandomStreams.createAgentStream(replicaSeed, this.id);
+	}
+
+	/**
+	 * Get random stream
+	 */
+	public SplittableRandom getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * Get citizen id
+	 */
+	public int getId() {
+		return this.id;
 	}
 
 	/**
 	 * Get compartment
 	 */
 	public Compartment getCompartment() {
-		return this.compartment;
+		return this.population.getCompartment(this.id);
 	}
 
 	/**
 	 * Smokes?
 	 */
 	public boolean smokes() {
-		return this.smokes;
+		return this.population.hasFlag(this.id, Population.SMOKER);
 	}
 
 	/**
 	 * Drinks alcohol?
 	 */
 	public boolean drinksAlcohol() {
-		return this.drinksAlcohol;
+		return this.population.hasFlag(this.id, Population.ALCOHOL_DRINKER);
 	}
 
 	/**
 	 * Is immunodepressed?
 	 */
 	public boolean isImmunodepressed() {
-		return this.isImmunosuppressed;
+		return this.population.hasFlag(this.id, Population.IMMUNOSUPPRESSED);
 	}
 
 	/**
 	 * Is susceptible?
 	 */
 	public int isSusceptible() {
-		return (this.compartment == Compartment.SUSCEPTIBLE) ? 1 : 0;
+		return this.population.isIn(this.id, Compartment.SUSCEPTIBLE) ? 1 : 0;
 	}
 
 	/**
 	 * Is exposed?
 	 */
 	public int isExposed() {
-		return (this.compartment == Compartment.EXPOSED) ? 1 : 0;
+		return this.population.isIn(this.id, Compartment.EXPOSED) ? 1 : 0;
 	}
 
 	/**
 	 * Is infected?
 	 */
 	public int isInfected() {
-		return (this.compartment == Compartment.INFECTED) ? 1 : 0;
+		return this.population.isIn(this.id, Compartment.INFECTED) ? 1 : 0;
 	}
 
 	/**
 	 * Is immune?
 	 */
 	public int isImmune() {
-		return (this.compartment == Compartment.IMMUNE) ? 1 : 0;
+		return this.population.isIn(this.id, Compartment.IMMUNE) ? 1 : 0;
 	}
 
 	/**
 	 * Is on treatment?
 	 */
 	public int isOnTreatment() {
-		return (this.compartment == Compartment.ON_TREATMENT) ? 1 : 0;
+		return this.population.isIn(this.id, Compartment.ON_TREATMENT) ? 1 : 0;
 	}
 
 	/**
 	 * Walk randomly
 	 */
 	private void randomWalk() {
-		double x = RandomHelper.nextDoubleFromTo(-DISPLACEMENT_PER_STEP,
+		double x = this.random.nextDouble(-DISPLACEMENT_PER_STEP,
 				DISPLACEMENT_PER_STEP);
-		double y = RandomHelper.nextDoubleFromTo(-DISPLACEMENT_PER_STEP,
+		double y = this.random.nextDouble(-DISPLACEMENT_PER_STEP,
 				DISPLACEMENT_PER_STEP);
-		NdPoint nextLocation = this.simulationBuilder.space
-				.moveByDisplacement(this, x, y);
-		goTo(nextLocation);
+		this.world.moveByDisplacement(this, x, y);
 	}
 
 	/**
 	 * Infect nearby susceptible individuals
 	 */
 	private void infect() {
-		GridPoint pt = this.simulationBuilder.grid.getLocation(this);
-		GridCellNgh<Citizen> nghCreator = new GridCellNgh<>(
-				this.simulationBuilder.grid, pt, Citizen.class, 0, 0);
-		List<GridCell<Citizen>> gridCells = nghCreator.getNeighborhood(true);
-		for (GridCell<Citizen> cell : gridCells) {
-			int infectedCount = countInfectedPeople(cell.items());
-			for (Citizen citizen : cell.items()) {
-				if (citizen.compartment == Compartment.SUSCEPTIBLE
-						&& Randomizer.isGettingExposed(infectedCount,
-								this.simulationBuilder.parametersAdapter)) {
-					citizen.transitionToExposed(false);
-				}
+		CellIndex cellIndex = this.world.getCellIndex();
+		ParametersAdapter parametersAdapter = this.world.getParametersAdapter();
+		int cell = cellIndex.getCell(this.id);
+		double p = Randomizer.getExposureProbability(
+				cellIndex.getInfectedCount(cell), parametersAdapter);
+		// Walk the list backwards: a transition only reorders visited slots
+		for (int i = cellIndex.getSusceptibleCount(cell) - 1; i >= 0; i--) {
+			if (Randomizer.isGettingExposed(this.random, p)) {
+				int id = cellIndex.getSusceptible(cell, i);
+				this.world.getCitizen(id).transitionToExposed(false);
 			}
 		}
 	}
 
-	/**
-	 * Unschedule programmed events
-	 */
-	private void unscheduleProgrammedEvents() {
-		for (int i = 0; i < this.scheduledActions.size(); i++) {
-			ISchedulableAction action = this.scheduledActions.get(i);
-			unscheduleAction(action);
-		}
-		this.scheduledActions = new ArrayList<>();
-	}
-
 	/**
 	 * Initialize disease
 	 */
 	private void initDisease() {
-		if (this.wasInitiallyExposed) {
+		if (this.population.hasFlag(this.id, Population.INITIALLY_EXPOSED)) {
 			transitionToExposed(true);
 		} else {
 			transitionToSusceptible();
@@ -392,63 +358,53 @@ public class Citizen {
 	 * Assign reference locations
 	 */
 	private void assignReferenceLocations() {
-		Pair<NdPoint, NdPoint> location = Heuristics.getReferenceSpots();
-		this.household = location.getFirst();
-		this.workplace = location.getSecond();
+		Pair<NdPoint, NdPoint> location = Heuristics.getReferenceSpots(
+				this.random, this.world.getCityLength(),
+				this.world.getCityWidth());
+		NdPoint household = location.getFirst();
+		NdPoint workplace = location.getSecond();
+		this.population.setHousehold(this.id, household.getX(),
+				household.getY());
+		this.population.setWorkplace(this.id, workplace.getX(),
+				workplace.getY());
 	}
 
 	/**
 	 * Schedule recurring events
 	 */
 	private void scheduleRecurringEvents() {
-		EventScheduler eventScheduler = EventScheduler.getInstance();
-		ISchedulableAction wakeUpAction = eventScheduler.scheduleRecurringEvent(
-				this.wakeUpTime, this, TickConverter.TICKS_PER_DAY, "goWork");
-		ISchedulableAction returnHomeAction = eventScheduler
-				.scheduleRecurringEvent(this.returningHomeTime, this,
-						TickConverter.TICKS_PER_DAY, "goHome");
-		ISchedulableAction stepAction = eventScheduler.scheduleRecurringEvent(
-				this.wakeUpTime, this, TICKS_BETWEEN_STEPS, "step");
-		this.scheduledActions.add(wakeUpAction);
-		this.scheduledActions.add(returnHomeAction);
-		this.scheduledActions.add(stepAction);
-	}
-
-	/**
-	 * Count infected people
-	 * 
-	 * @param citizens Citizens
-	 */
-	private int countInfectedPeople(Iterable<Citizen> citizens) {
-		int count = 0;
-		for (Citizen citizen : citizens) {
-			if (citizen.compartment == Compartment.INFECTED) {
-				count++;
-			}
+		double wakeUpTime = this.population.getWakeUpTime(this.id);
+		double returningHomeTime = this.population
+				.getReturningHomeTime(this.id);
+		this.world.scheduleRecurringEvent(wakeUpTime, this,
+				TickConverter.TICKS_PER_DAY, CitizenEvent.GO_WORK);
+		this.world.scheduleRecurringEvent(returningHomeTime, this,
+				TickConverter.TICKS_PER_DAY, CitizenEvent.GO_HOME);
+		if (!MOVEMENT_SWEEP_FLAG) {
+			this.world.scheduleRecurringEvent(wakeUpTime, this,
+					TICKS_BETWEEN_STEPS, CitizenEvent.STEP);
 		}
-		return count;
 	}
 
 	/**
-	 * Go to location
+	 * Set compartment
 	 * 
-	 * @param location Location
+	 * @param compartment Compartment
 	 */
-	private void goTo(NdPoint location) {
-		double x = location.getX();
-		double y = location.getY();
-		this.simulationBuilder.space.moveTo(this, x, y);
-		this.simulationBuilder.grid.moveTo(this, (int) x, (int) y);
+	private void setCompartment(Compartment compartment) {
+		Compartment previous = this.population.getCompartment(this.id);
+		this.population.setCompartment(this.id, compartment);
+		this.world.getCellIndex().onTransition(this.id, previous, compartment);
 	}
 
 	/**
-	 * Unschedule action
+	 * Go to location
 	 * 
-	 * @param action Action to unschedule
+	 * @param x X coordinate
+	 * @param y Y coordinate
 	 */
-	private void unscheduleAction(ISchedulableAction action) {
-		ISchedule schedule = RunEnvironment.getInstance().getCurrentSchedule();
-		schedule.removeAction(action);
+	private void goTo(double x, double y) {
+		this.world.moveTo(this, x, y);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package model;
+
+public enum CitizenEvent {
+
+	STEP("step"), GO_WORK("goWork"), GO_HOME("goHome"),
+	EXPEL_PARTICLES("expelParticles"),
+	TRANSITION_TO_SUSCEPTIBLE("transitionToSusceptible"),
+	TRANSITION_TO_INFECTED("transitionToInfected"),
+	TRANSITION_TO_ON_TREATMENT("transitionToOnTreament"),
+	TRANSITION_TO_IMMUNE("transitionToImmune");
+
+	/**
+	 * Events indexed by ordinal
+	 */
+	private static final CitizenEvent[] EVENTS = values();
+
+	/**
+	 * Method's name
+	 */
+	private final String methodName;
+
+	/**
+	 * Create a new citizen event
+	 *
+	 * @param methodName Method's name
+	 */
+	private CitizenEvent(String methodName) {
+		this.methodName = methodName;
+	}
+
+	/**
+	 * Get event by ordinal
+	 *
+	 * @param ordinal Ordinal
+	 */
+	public static CitizenEvent fromOrdinal(int ordinal) {
+		return EVENTS[ordinal];
+	}
+
+	/**
+	 * Get method's name
+	 */
+	public String getMethodName() {
+		return this.methodName;
+	}
+
+	/**
+	 * Fire event on citizen
+	 *
+	 * @param citizen Citizen
+	 */
+	public void fire(Citizen citizen) {
+		switch (this) {
+		case STEP:
+			citizen.step();
+			break;
+		case GO_WORK:
+			citizen.goWork();
+			break;
+		case GO_HOME:
+			citizen.goHome();
+			break;
+		case EXPEL_PARTICLES:
+			citizen.expelParticles();
+			break;
+		case TRANSITION_TO_SUSCEPTIBLE:
+			citizen.transitionToSusceptible();
+			break;
+		case TRANSITION_TO_INFECTED:
+			citizen.transitionToInfected();
+			break;
+		case TRANSITION_TO_ON_TREATMENT:
+			citizen.transitionToOnTreament();
+			break;
+		case TRANSITION_TO_IMMUNE:
+			citizen.transitionToImmune();
+			break;
+		default:
+			break;
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package model;
+
+import repast.simphony.engine.schedule.ScheduledMethod;
+import simulation.ParametersAdapter;
+import simulation.World;
+
+public class ExposureSweep {
+
+	/**
+	 * World
+	 */
+	private World world;
+
+	/**
+	 * Create a new exposure sweep
+	 *
+	 * @param world World
+	 */
+	public ExposureSweep(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Expose susceptible citizens sharing a cell with particle expelling
+	 * citizens
+	 */
+	@ScheduledMethod(start = 1
+			+ Citizen.PARTICLE_EXPELLING_INTERVAL, interval = Citizen.PARTICLE_EXPELLING_INTERVAL)
+	public void sweep() {
+		CellIndex cellIndex = this.world.getCellIndex();
+		ParametersAdapter parametersAdapter = this.world.getParametersAdapter();
+		// Walk the active cells backwards: exposures never change expellers
+		for (int i = cellIndex.getActiveCellCount() - 1; i >= 0; i--) {
+			int cell = cellIndex.getActiveCell(i);
+			double p = Randomizer.getCellExposureProbability(
+					cellIndex.getInfectedCount(cell),
+					cellIndex.getExpellerCount(cell), parametersAdapter);
+			for (int j = cellIndex.getSusceptibleCount(cell) - 1; j >= 0; j--) {
+				int id = cellIndex.getSusceptible(cell, j);
+				Citizen citizen = this.world.getCitizen(id);
+				if (Randomizer.isGettingExposed(citizen.getRandom(), p)) {
+					citizen.transitionToExposed(false);
+				}
+			}
+		}
+	}
+
+}
@@ -1,9 +1,8 @@
 package model;
 
-import repast.simphony.random.RandomHelper;
+import java.util.SplittableRandom;
 import repast.simphony.space.continuous.NdPoint;
 import repast.simphony.util.collections.Pair;
-import simulation.SimulationBuilder;
 
 public final class Heuristics {
 
@@ -16,19 +15,20 @@ public final class Heuristics {
 
 	/**
 	 * Get reference spots
+	 * 
+	 * @param random     Random stream
+	 * @param cityLength City's length (extent along the x axis)
+	 * @param cityWidth  City's width (extent along the y axis)
 	 */
-	public static Pair<NdPoint, NdPoint> getReferenceSpots() {
-		double householdX = RandomHelper.nextDoubleFromTo(0,
-				SimulationBuilder.CITY_WIDTH);
-		double householdY = RandomHelper.nextDoubleFromTo(0,
-				SimulationBuilder.CITY_LENGTH);
+	public static Pair<NdPoint, NdPoint> getReferenceSpots(
+			SplittableRandom random, int cityLength, int cityWidth) {
+		double householdX = random.nextDouble(cityLength);
+		double householdY = random.nextDouble(cityWidth);
 		NdPoint household = new NdPoint(householdX,householdY);
-		double workplaceX = RandomHelper.nextDoubleFromTo(0,
-				SimulationBuilder.CITY_WIDTH);
-		double workplaceY = RandomHelper.nextDoubleFromTo(0,
-				SimulationBuilder.CITY_LENGTH);
+		double workplaceX = random.nextDouble(cityLength);
+		double workplaceY = random.nextDouble(cityWidth);
 		NdPoint workplace = new NdPoint(workplaceX,workplaceY);
 		return new Pair<>(household, workplace);
 	}
 
-}
\ No newline at end of file
+}
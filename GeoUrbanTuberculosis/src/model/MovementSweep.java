@@ -0,0 +1,59 @@
+package model;
+
+import java.util.SplittableRandom;
+import repast.simphony.engine.schedule.ScheduledMethod;
+import simulation.World;
+
+public class MovementSweep {
+
+	/**
+	 * World
+	 */
+	private World world;
+
+	/**
+	 * Displacements along the x and y axes, interleaved by citizen id
+	 */
+	private double[] displacements;
+
+	/**
+	 * Movement random stream
+	 */
+	private SplittableRandom random;
+
+	/**
+	 * Create a new movement sweep
+	 *
+	 * @param world World
+	 */
+	public MovementSweep(World world) {
+		this.world = world;
+		this.displacements = new double[2 * world.getPopulation().size()];
+	}
+
+	/**
+	 * Seed random stream
+	 *
+	 * @param replicaSeed Replica seed
+	 */
+	public void seedRandom(long replicaSeed) {
+		this.random = RandomStreams.createMovementStream(replicaSeed);
+	}
+
+	/**
+	 * Take a random walk step with every walking citizen. Displacements are
+	 * drawn for the whole population in one block, in id order.
+	 */
+	@ScheduledMethod(start = 1, interval = Citizen.TICKS_BETWEEN_STEPS, priority = 1)
+	public void sweep() {
+		double[] displacements = this.displacements;
+		SplittableRandom random = this.random;
+		double from = -Citizen.DISPLACEMENT_PER_STEP;
+		double range = 2 * Citizen.DISPLACEMENT_PER_STEP;
+		for (int i = 0; i < displacements.length; i++) {
+			displacements[i] = from + range * random.nextDouble();
+		}
+		this.world.moveWalkers(displacements);
+	}
+
+}
@@ -0,0 +1,363 @@
+package model;
+
+public class Population {
+
+	/**
+	 * Immunosuppressed flag
+	 */
+	public static final int IMMUNOSUPPRESSED = 1;
+
+	/**
+	 * Smoker flag
+	 */
+	public static final int SMOKER = 1 << 1;
+
+	/**
+	 * Alcohol drinker flag
+	 */
+	public static final int ALCOHOL_DRINKER = 1 << 2;
+
+	/**
+	 * Initially exposed flag
+	 */
+	public static final int INITIALLY_EXPOSED = 1 << 3;
+
+	/**
+	 * Notified exposure flag
+	 */
+	public static final int NOTIFIED_EXPOSURE = 1 << 4;
+
+	/**
+	 * Notified infection flag
+	 */
+	public static final int NOTIFIED_INFECTION = 1 << 5;
+
+	/**
+	 * Expelling particles flag
+	 */
+	public static final int EXPELLING = 1 << 6;
+
+	/**
+	 * Walking flag (set at the first wake up)
+	 */
+	public static final int WALKING = 1 << 7;
+
+	/**
+	 * Compartments indexed by ordinal
+	 */
+	private static final Compartment[] COMPARTMENTS = Compartment.values();
+
+	/**
+	 * Population size
+	 */
+	private final int size;
+
+	/**
+	 * Compartment ordinals
+	 */
+	private final byte[] compartments;
+
+	/**
+	 * Citizen counts by compartment ordinal (maintained on every transition)
+	 */
+	private final int[] compartmentCounts;
+
+	/**
+	 * Packed risk factor and notification flags
+	 */
+	private final byte[] flags;
+
+	/**
+	 * Household x coordinates
+	 */
+	private final double[] householdXs;
+
+	/**
+	 * Household y coordinates
+	 */
+	private final double[] householdYs;
+
+	/**
+	 * Workplace x coordinates
+	 */
+	private final double[] workplaceXs;
+
+	/**
+	 * Workplace y coordinates
+	 */
+	private final double[] workplaceYs;
+
+	/**
+	 * Current x coordinates
+	 */
+	private final double[] xs;
+
+	/**
+	 * Current y coordinates
+	 */
+	private final double[] ys;
+
+	/**
+	 * Wake up times
+	 */
+	private final double[] wakeUpTimes;
+
+	/**
+	 * Returning home times
+	 */
+	private final double[] returningHomeTimes;
+
+	/**
+	 * Create a new population store
+	 *
+	 * @param size Population size
+	 */
+	public Population(int size) {
+		this.size = size;
+		this.compartments = new byte[size];
+		this.compartmentCounts = new int[COMPARTMENTS.length];
+		this.compartmentCounts[0] = size;
+		this.flags = new byte[size];
+		this.householdXs = new double[size];
+		this.householdYs = new double[size];
+		this.workplaceXs = new double[size];
+		this.workplaceYs = new double[size];
+		this.xs = new double[size];
+		this.ys = new double[size];
+		this.wakeUpTimes = new double[size];
+		this.returningHomeTimes = new double[size];
+	}
+
+	/**
+	 * Get population size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Get compartment
+	 *
+	 * @param id Citizen id
+	 */
+	public Compartment getCompartment(int id) {
+		return COMPARTMENTS[this.compartments[id]];
+	}
+
+	/**
+	 * Is the citizen in the compartment?
+	 *
+	 * @param id          Citizen id
+	 * @param compartment Compartment
+	 */
+	public boolean isIn(int id, Compartment compartment) {
+		return this.compartments[id] == compartment.ordinal();
+	}
+
+	/**
+	 * Set compartment
+	 *
+	 * @param id          Citizen id
+	 * @param compartment Compartment
+	 */
+	public void setCompartment(int id, Compartment compartment) {
+		int ordinal = compartment.ordinal();
+		this.compartmentCounts[this.compartments[id]]--;
+		this.compartmentCounts[ordinal]++;
+		this.compartments[id] = (byte) ordinal;
+	}
+
+	/**
+	 * Get number of citizens in the compartment
+	 *
+	 * @param compartment Compartment
+	 */
+	public int getCompartmentCount(Compartment compartment) {
+		return this.compartmentCounts[compartment.ordinal()];
+	}
+
+	/**
+	 * Copy citizen counts by compartment
+	 *
+	 * @param counts Destination, indexed by compartment ordinal
+	 */
+	public void getCompartmentCounts(int[] counts) {
+		System.arraycopy(this.compartmentCounts, 0, counts, 0,
+				this.compartmentCounts.length);
+	}
+
+	/**
+	 * Has flag?
+	 *
+	 * @param id   Citizen id
+	 * @param flag Flag
+	 */
+	public boolean hasFlag(int id, int flag) {
+		return (this.flags[id] & flag) != 0;
+	}
+
+	/**
+	 * Get packed flags
+	 *
+	 * @param id Citizen id
+	 */
+	public int getFlags(int id) {
+		return this.flags[id];
+	}
+
+	/**
+	 * Set flag
+	 *
+	 * @param id    Citizen id
+	 * @param flag  Flag
+	 * @param value Value
+	 */
+	public void setFlag(int id, int flag, boolean value) {
+		if (value) {
+			this.flags[id] |= flag;
+		} else {
+			this.flags[id] &= ~flag;
+		}
+	}
+
+	/**
+	 * Clear flags on every citizen
+	 *
+	 * @param mask Flags to clear
+	 */
+	public void clearFlags(int mask) {
+		byte[] flags = this.flags;
+		for (int i = 0; i < this.size; i++) {
+			flags[i] &= ~mask;
+		}
+	}
+
+	/**
+	 * Get household x coordinate
+	 *
+	 * @param id Citizen id
+	 */
+	public double getHouseholdX(int id) {
+		return this.householdXs[id];
+	}
+
+	/**
+	 * Get household y coordinate
+	 *
+	 * @param id Citizen id
+	 */
+	public double getHouseholdY(int id) {
+		return this.householdYs[id];
+	}
+
+	/**
+	 * Set household
+	 *
+	 * @param id Citizen id
+	 * @param x  X coordinate
+	 * @param y  Y coordinate
+	 */
+	public void setHousehold(int id, double x, double y) {
+		this.householdXs[id] = x;
+		this.householdYs[id] = y;
+	}
+
+	/**
+	 * Get workplace x coordinate
+	 *
+	 * @param id Citizen id
+	 */
+	public double getWorkplaceX(int id) {
+		return this.workplaceXs[id];
+	}
+
+	/**
+	 * Get workplace y coordinate
+	 *
+	 * @param id Citizen id
+	 */
+	public double getWorkplaceY(int id) {
+		return this.workplaceYs[id];
+	}
+
+	/**
+	 * Set workplace
+	 *
+	 * @param id Citizen id
+	 * @param x  X coordinate
+	 * @param y  Y coordinate
+	 */
+	public void setWorkplace(int id, double x, double y) {
+		this.workplaceXs[id] = x;
+		this.workplaceYs[id] = y;
+	}
+
+	/**
+	 * Get current x coordinate
+	 *
+	 * @param id Citizen id
+	 */
+	public double getX(int id) {
+		return this.xs[id];
+	}
+
+	/**
+	 * Get current y coordinate
+	 *
+	 * @param id Citizen id
+	 */
+	public double getY(int id) {
+		return this.ys[id];
+	}
+
+	/**
+	 * Set current location
+	 *
+	 * @param id Citizen id
+	 * @param x  X coordinate
+	 * @param y  Y coordinate
+	 */
+	public void setLocation(int id, double x, double y) {
+		this.xs[id] = x;
+		this.ys[id] = y;
+	}
+
+	/**
+	 * Get wake up time
+	 *
+	 * @param id Citizen id
+	 */
+	public double getWakeUpTime(int id) {
+		return this.wakeUpTimes[id];
+	}
+
+	/**
+	 * Set wake up time
+	 *
+	 * @param id   Citizen id
+	 * @param time Wake up time
+	 */
+	public void setWakeUpTime(int id, double time) {
+		this.wakeUpTimes[id] = time;
+	}
+
+	/**
+	 * Get returning home time
+	 *
+	 * @param id Citizen id
+	 */
+	public double getReturningHomeTime(int id) {
+		return this.returningHomeTimes[id];
+	}
+
+	/**
+	 * Set returning home time
+	 *
+	 * @param id   Citizen id
+	 * @param time Returning home time
+	 */
+	public void setReturningHomeTime(int id, double time) {
+		this.returningHomeTimes[id] = time;
+	}
+
+}
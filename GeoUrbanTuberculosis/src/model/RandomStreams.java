@@ -0,0 +1,77 @@
+package model;
+
+import java.util.SplittableRandom;
+
+public final class RandomStreams {
+
+	/**
+	 * Golden ratio increment (SplitMix64)
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Movement stream index (below every citizen id)
+	 */
+	private static final int MOVEMENT_STREAM_INDEX = -1;
+
+	/**
+	 * Private constructor
+	 */
+	private RandomStreams() {
+		throw new UnsupportedOperationException("Utility class");
+	}
+
+	/**
+	 * Get replica seed. Depends only on the base seed and the replica's run
+	 * number, so a replica draws the same numbers whatever thread or world
+	 * runs it.
+	 *
+	 * @param seed Base seed
+	 * @param run  Simulation run
+	 */
+	public static long getReplicaSeed(long seed, long run) {
+		return key(seed, run);
+	}
+
+	/**
+	 * Create agent stream
+	 *
+	 * @param replicaSeed Replica seed
+	 * @param id          Citizen id
+	 */
+	public static SplittableRandom createAgentStream(long replicaSeed,
+			int id) {
+		return new SplittableRandom(key(replicaSeed, id));
+	}
+
+	/**
+	 * Create movement stream
+	 *
+	 * @param replicaSeed Replica seed
+	 */
+	public static SplittableRandom createMovementStream(long replicaSeed) {
+		return new SplittableRandom(key(replicaSeed, MOVEMENT_STREAM_INDEX));
+	}
+
+	/**
+	 * Derive a child key
+	 *
+	 * @param parent Parent key
+	 * @param index  Child index
+	 */
+	private static long key(long parent, long index) {
+		return mix(parent ^ mix((index + 1) * GOLDEN_GAMMA));
+	}
+
+	/**
+	 * SplitMix64 finalizer
+	 *
+	 * @param z Value
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -1,7 +1,6 @@
 package model;
 
-import cern.jet.random.Exponential;
-import repast.simphony.random.RandomHelper;
+import java.util.SplittableRandom;
 import simulation.ParametersAdapter;
 
 public final class Randomizer {
@@ -90,140 +89,177 @@ public final class Randomizer {
 
 	/**
 	 * Get random wake up time (unit: hours)
+	 * 
+	 * @param random Random stream
 	 */
-	public static double getRandomWakeUpTime() {
-		return RandomHelper.nextDoubleFromTo(MIN_WAKE_UP_TIME,
-				MAX_WAKE_UP_TIME);
+	public static double getRandomWakeUpTime(SplittableRandom random) {
+		return random.nextDouble(MIN_WAKE_UP_TIME, MAX_WAKE_UP_TIME);
 	}
 
 	/**
 	 * Get random returning home time (unit: hours)
+	 * 
+	 * @param random Random stream
 	 */
-	public static double getRandomReturningHomeTime() {
-		return RandomHelper.nextDoubleFromTo(MIN_RETURN_HOME_TIME,
-				MAX_RETURN_HOME_TIME);
+	public static double getRandomReturningHomeTime(
+			SplittableRandom random) {
+		return random.nextDouble(MIN_RETURN_HOME_TIME, MAX_RETURN_HOME_TIME);
 	}
 
 	/**
 	 * Get random incubation period (unit: days)
+	 * 
+	 * @param random Random stream
 	 */
-	public static double getRandomIncubationPeriod() {
-		return RandomHelper.nextDoubleFromTo(MIN_INCUBATION_PERIOD,
+	public static double getRandomIncubationPeriod(SplittableRandom random) {
+		return random.nextDouble(MIN_INCUBATION_PERIOD,
 				MAX_INCUBATION_PERIOD);
 	}
 
 	/**
 	 * Get random days to diagnosis (unit: days)
 	 * 
+	 * @param random            Random stream
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static double getRandomDaysToDiagnosis(
+	public static double getRandomDaysToDiagnosis(SplittableRandom random,
 			ParametersAdapter parametersAdapter) {
 		double meanDiagnosisDelay = parametersAdapter.getMeanDiagnosisDelay();
 		double lambda = 1 / meanDiagnosisDelay;
-		Exponential exp = RandomHelper.createExponential(lambda);
-		return exp.nextDouble();
+		return -Math.log(1 - random.nextDouble()) / lambda;
 	}
 
 	/**
 	 * Get random treatment duration (unit: days)
+	 * 
+	 * @param random Random stream
 	 */
-	public static double getRandomTreatmentDuration() {
-		return RandomHelper.nextDoubleFromTo(MIN_TREATMENT_DURATION,
+	public static double getRandomTreatmentDuration(SplittableRandom random) {
+		return random.nextDouble(MIN_TREATMENT_DURATION,
 				MAX_TREATMENT_DURATION);
 	}
 
 	/**
 	 * Get random days to full recovery (unit: days)
+	 * 
+	 * @param random Random stream
 	 */
-	public static double getRandomDaysToFullRecovery() {
-		return RandomHelper.nextDoubleFromTo(MIN_DAYS_TO_FULL_RECOVERY,
+	public static double getRandomDaysToFullRecovery(
+			SplittableRandom random) {
+		return random.nextDouble(MIN_DAYS_TO_FULL_RECOVERY,
 				MAX_DAYS_TO_FULL_RECOVERY);
 	}
 
 	/**
 	 * Get random immunodeficiency
 	 * 
+	 * @param random            Random stream
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static boolean getRandomImmunodeficiency(
+	public static boolean getRandomImmunodeficiency(SplittableRandom random,
 			ParametersAdapter parametersAdapter) {
 		double p = parametersAdapter.getImmunodepressionShare();
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
-		return r <= p;
+		return random.nextDouble() <= p;
 	}
 
 	/**
 	 * Get random smoker
 	 * 
+	 * @param random            Random stream
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static boolean getRandomSmoker(ParametersAdapter parametersAdapter) {
+	public static boolean getRandomSmoker(SplittableRandom random,
+			ParametersAdapter parametersAdapter) {
 		double p = parametersAdapter.getSmokersShare();
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
-		return r <= p;
+		return random.nextDouble() <= p;
 	}
 
 	/**
 	 * Get random alcohol drinker
 	 * 
+	 * @param random            Random stream
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static boolean getRandomAlcoholDrinker(
+	public static boolean getRandomAlcoholDrinker(SplittableRandom random,
 			ParametersAdapter parametersAdapter) {
 		double p = parametersAdapter.getAlcoholDrinkersShare();
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
-		return r <= p;
+		return random.nextDouble() <= p;
 	}
 
 	/**
 	 * Is the citizen getting exposed?
 	 * 
+	 * @param random Random stream
+	 * @param p        Exposure probability
+	 */
+	public static boolean isGettingExposed(SplittableRandom random, double p) {
+		return random.nextDouble() <= p;
+	}
+
+	/**
+	 * Get exposure probability of a single particle expelling event
+	 * 
 	 * @param infectedPeople    Infected people around
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static boolean isGettingExposed(int infectedPeople,
+	public static double getExposureProbability(int infectedPeople,
 			ParametersAdapter parametersAdapter) {
-		double aVr = parametersAdapter.getAverageRoomVentilationRate();
-		double aRv = parametersAdapter.getAverageRoomVolume();
-		double phi = infectedPeople * MEAN_QUANTA_PRODUCTION;
-		double p = (MEAN_PULMONARY_VENTILATION_RATE * phi) / (aRv * aVr);
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
-		return r <= p;
+		return parametersAdapter.getSnapshot()
+				.getExposureProbability(infectedPeople);
+	}
+
+	/**
+	 * Get probability of at least one exposure in a cell where several
+	 * citizens expel particles
+	 * 
+	 * @param infectedPeople    Infected people around
+	 * @param expellers         Particle expelling citizens around
+	 * @param parametersAdapter Parameters' adapter
+	 */
+	public static double getCellExposureProbability(int infectedPeople,
+			int expellers, ParametersAdapter parametersAdapter) {
+		double p = getExposureProbability(infectedPeople, parametersAdapter);
+		if (p >= 1) {
+			return 1;
+		}
+		return 1 - Math.pow(1 - p, expellers);
 	}
 
 	/**
 	 * Is the citizen dropping treatment?
 	 * 
+	 * @param random            Random stream
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static boolean isDroppingOutTreatment(
+	public static boolean isDroppingOutTreatment(SplittableRandom random,
 			ParametersAdapter parametersAdapter) {
 		double p = parametersAdapter.getTreatmentDropoutRate();
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
-		return r <= p;
+		return random.nextDouble() <= p;
 	}
 
 	/**
 	 * Is the citizen getting infected?
 	 * 
-	 * @param citizen           Citizen
+	 * @param random            Random stream
+	 * @param population        Population store
+	 * @param id                Citizen id
 	 * @param parametersAdapter Parameters' adapter
 	 */
-	public static boolean isGettingInfected(Citizen citizen,
+	public static boolean isGettingInfected(SplittableRandom random,
+			Population population, int id,
 			ParametersAdapter parametersAdapter) {
 		double p = parametersAdapter.getInfectionProbability();
-		if (citizen.isImmunodepressed()) {
+		int flags = population.getFlags(id);
+		if ((flags & Population.IMMUNOSUPPRESSED) != 0) {
 			p *= IMMUNODEFICIENCY_FOLD;
 		}
-		if (citizen.smokes()) {
+		if ((flags & Population.SMOKER) != 0) {
 			p *= RISK_FACTOR_FOLD;
 		}
-		if (citizen.drinksAlcohol()) {
+		if ((flags & Population.ALCOHOL_DRINKER) != 0) {
 			p *= RISK_FACTOR_FOLD;
 		}
-		double r = RandomHelper.nextDoubleFromTo(0, 1);
-		return r <= p;
+		return random.nextDouble() <= p;
 	}
 
 }
\ No newline at end of file
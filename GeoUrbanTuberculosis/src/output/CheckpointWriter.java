@@ -0,0 +1,183 @@
+package output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class CheckpointWriter implements Closeable {
+
+	/**
+	 * Checkpoint magic number
+	 */
+	public static final int MAGIC = 0x47555443;
+
+	/**
+	 * Checkpoint format version
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * Buffer size (unit: bytes)
+	 */
+	public static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Checkpoint path
+	 */
+	private Path path;
+
+	/**
+	 * Temporary path written until commit
+	 */
+	private Path temporaryPath;
+
+	/**
+	 * File channel
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Write buffer
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Committed flag
+	 */
+	private boolean committed;
+
+	/**
+	 * Create a new checkpoint writer. Nothing replaces the checkpoint at the
+	 * path until commit.
+	 *
+	 * @param path Checkpoint path
+	 */
+	public CheckpointWriter(String path) throws IOException {
+		this.path = Paths.get(path);
+		this.temporaryPath = Paths.get(path + ".tmp");
+		Path parent = this.path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		this.channel = FileChannel.open(this.temporaryPath,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		writeInt(MAGIC);
+		writeInt(VERSION);
+	}
+
+	/**
+	 * Write boolean
+	 *
+	 * @param value Value
+	 */
+	public void writeBoolean(boolean value) throws IOException {
+		ensureRemaining(1);
+		this.buffer.put((byte) (value ? 1 : 0));
+	}
+
+	/**
+	 * Write integer
+	 *
+	 * @param value Value
+	 */
+	public void writeInt(int value) throws IOException {
+		ensureRemaining(Integer.BYTES);
+		this.buffer.putInt(value);
+	}
+
+	/**
+	 * Write long
+	 *
+	 * @param value Value
+	 */
+	public void writeLong(long value) throws IOException {
+		ensureRemaining(Long.BYTES);
+		this.buffer.putLong(value);
+	}
+
+	/**
+	 * Write double
+	 *
+	 * @param value Value
+	 */
+	public void writeDouble(double value) throws IOException {
+		ensureRemaining(Double.BYTES);
+		this.buffer.putDouble(value);
+	}
+
+	/**
+	 * Write string
+	 *
+	 * @param value Value
+	 */
+	public void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!this.buffer.hasRemaining()) {
+				flush();
+			}
+			int length = Math.min(this.buffer.remaining(),
+					bytes.length - offset);
+			this.buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	/**
+	 * Flush, sync and atomically replace the checkpoint
+	 */
+	public void commit() throws IOException {
+		flush();
+		this.channel.force(false);
+		this.channel.close();
+		Files.move(this.temporaryPath, this.path,
+				StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		this.committed = true;
+	}
+
+	/**
+	 * Close, discarding an uncommitted checkpoint
+	 */
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+		if (!this.committed) {
+			Files.deleteIfExists(this.temporaryPath);
+		}
+	}
+
+	/**
+	 * Make room in the buffer
+	 *
+	 * @param bytes Bytes to write
+	 */
+	private void ensureRemaining(int bytes) throws IOException {
+		if (this.buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	/**
+	 * Flush buffer to the channel
+	 */
+	private void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+
+}
@@ -1,5 +1,8 @@
 package output;
 
+import model.Compartment;
+import model.Population;
+
 public class OutputManager {
 
 	/**
@@ -12,6 +15,20 @@ public class OutputManager {
 	 */
 	private int exposures;
 
+	/**
+	 * Population store
+	 */
+	private Population population;
+
+	/**
+	 * Create a new output manager
+	 *
+	 * @param population Population store
+	 */
+	public OutputManager(Population population) {
+		this.population = population;
+	}
+
 	/**
 	 * Handle the 'onNewInfection' event
 	 */
@@ -40,6 +57,41 @@ public class OutputManager {
 		return this.exposures;
 	}
 
+	/**
+	 * Get susceptible count
+	 */
+	public int getSusceptibleCount() {
+		return this.population.getCompartmentCount(Compartment.SUSCEPTIBLE);
+	}
+
+	/**
+	 * Get exposed count
+	 */
+	public int getExposedCount() {
+		return this.population.getCompartmentCount(Compartment.EXPOSED);
+	}
+
+	/**
+	 * Get infected count
+	 */
+	public int getInfectedCount() {
+		return this.population.getCompartmentCount(Compartment.INFECTED);
+	}
+
+	/**
+	 * Get on treatment count
+	 */
+	public int getOnTreatmentCount() {
+		return this.population.getCompartmentCount(Compartment.ON_TREATMENT);
+	}
+
+	/**
+	 * Get immune count
+	 */
+	public int getImmuneCount() {
+		return this.population.getCompartmentCount(Compartment.IMMUNE);
+	}
+
 	/**
 	 * Reset outputs
 	 */
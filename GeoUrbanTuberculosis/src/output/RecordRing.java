@@ -0,0 +1,111 @@
+package output;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RecordRing {
+
+	/**
+	 * Integers per record
+	 */
+	private final int recordSize;
+
+	/**
+	 * Capacity mask (capacity is a power of two)
+	 */
+	private final int mask;
+
+	/**
+	 * Record slots
+	 */
+	private final int[] slots;
+
+	/**
+	 * Next record to read (written by the consumer only)
+	 */
+	private final AtomicLong head;
+
+	/**
+	 * Next record to write (written by the producer only)
+	 */
+	private final AtomicLong tail;
+
+	/**
+	 * Producer's cached copy of the head
+	 */
+	private long cachedHead;
+
+	/**
+	 * Records dropped because the ring was full
+	 */
+	private volatile long dropped;
+
+	/**
+	 * Create a new single-producer single-consumer record ring
+	 *
+	 * @param recordSize Integers per record
+	 * @param capacity   Minimum capacity (unit: records)
+	 */
+	public RecordRing(int recordSize, int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.recordSize = recordSize;
+		this.mask = size - 1;
+		this.slots = new int[size * recordSize];
+		this.head = new AtomicLong();
+		this.tail = new AtomicLong();
+	}
+
+	/**
+	 * Offer a record without blocking (producer only)
+	 *
+	 * @param record Record
+	 * @return False if the ring was full and the record was dropped
+	 */
+	public boolean offer(int[] record) {
+		long tail = this.tail.get();
+		if (tail - this.cachedHead > this.mask) {
+			this.cachedHead = this.head.get();
+			if (tail - this.cachedHead > this.mask) {
+				this.dropped++;
+				return false;
+			}
+		}
+		System.arraycopy(record, 0, this.slots,
+				(int) (tail & this.mask) * this.recordSize, this.recordSize);
+		// Publish the record after its contents
+		this.tail.lazySet(tail + 1);
+		return true;
+	}
+
+	/**
+	 * Poll a record (consumer only)
+	 *
+	 * @param record Destination
+	 * @return False if the ring was empty
+	 */
+	public boolean poll(int[] record) {
+		long head = this.head.get();
+		if (head == this.tail.get()) {
+			return false;
+		}
+		System.arraycopy(this.slots, (int) (head & this.mask) * this.recordSize,
+				record, 0, this.recordSize);
+		// Release the slot after reading it
+		this.head.lazySet(head + 1);
+		return true;
+	}
+
+	/**
+	 * Get integers per record
+	 */
+	public int getRecordSize() {
+		return this.recordSize;
+	}
+
+	/**
+	 * Get records dropped because the ring was full
+	 */
+	public long getDropped() {
+		return this.dropped;
+	}
+
+}
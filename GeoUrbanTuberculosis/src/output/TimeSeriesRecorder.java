@@ -0,0 +1,174 @@
+package output;
+
+import java.util.Arrays;
+import model.Compartment;
+import model.Population;
+
+public class TimeSeriesRecorder {
+
+	/**
+	 * Simulation run field
+	 */
+	public static final int RUN_FIELD = 0;
+
+	/**
+	 * Tick field
+	 */
+	public static final int TICK_FIELD = 1;
+
+	/**
+	 * First compartment count field (one per compartment, by ordinal)
+	 */
+	public static final int COMPARTMENTS_FIELD = 2;
+
+	/**
+	 * Cumulative infections field
+	 */
+	public static final int INFECTIONS_FIELD = COMPARTMENTS_FIELD
+			+ Compartment.values().length;
+
+	/**
+	 * Cumulative exposures field
+	 */
+	public static final int EXPOSURES_FIELD = INFECTIONS_FIELD + 1;
+
+	/**
+	 * Integers per record
+	 */
+	public static final int RECORD_SIZE = EXPOSURES_FIELD + 1;
+
+	/**
+	 * Ring capacity (unit: records)
+	 */
+	public static final int RING_CAPACITY = 1 << 14;
+
+	/**
+	 * Record ring
+	 */
+	private RecordRing ring;
+
+	/**
+	 * Population store
+	 */
+	private Population population;
+
+	/**
+	 * Output manager
+	 */
+	private OutputManager outputManager;
+
+	/**
+	 * Compartment counts
+	 */
+	private int[] counts;
+
+	/**
+	 * Record being written
+	 */
+	private int[] record;
+
+	/**
+	 * Hold records until published?
+	 */
+	private boolean held;
+
+	/**
+	 * Held records, back to back
+	 */
+	private int[] heldRecords;
+
+	/**
+	 * Number of held records
+	 */
+	private int heldCount;
+
+	/**
+	 * Create a new time series recorder
+	 *
+	 * @param population    Population store
+	 * @param outputManager Output manager
+	 */
+	public TimeSeriesRecorder(Population population,
+			OutputManager outputManager) {
+		this.ring = new RecordRing(RECORD_SIZE, RING_CAPACITY);
+		this.population = population;
+		this.outputManager = outputManager;
+		this.counts = new int[Compartment.values().length];
+		this.record = new int[RECORD_SIZE];
+		this.heldRecords = new int[0];
+	}
+
+	/**
+	 * Record compartment counts and cumulative incidence. Never blocks: the
+	 * sample is dropped if the writer is behind.
+	 *
+	 * @param run  Simulation run
+	 * @param tick Tick
+	 */
+	public void record(int run, double tick) {
+		int[] record = this.record;
+		this.population.getCompartmentCounts(this.counts);
+		record[RUN_FIELD] = run;
+		record[TICK_FIELD] = (int) tick;
+		System.arraycopy(this.counts, 0, record, COMPARTMENTS_FIELD,
+				this.counts.length);
+		record[INFECTIONS_FIELD] = this.outputManager.getInfections();
+		record[EXPOSURES_FIELD] = this.outputManager.getExposures();
+		if (this.held) {
+			hold(record);
+		} else {
+			this.ring.offer(record);
+		}
+	}
+
+	/**
+	 * Hold records until they are published instead of offering them to
+	 * the writer right away, for replicas that may be discarded
+	 *
+	 * @param held Hold records?
+	 */
+	public void setHeld(boolean held) {
+		this.held = held;
+	}
+
+	/**
+	 * Offer the held records of runs before a given run to the writer and
+	 * drop the rest. Call between replicas, never while one is recording.
+	 *
+	 * @param endRun First run whose records are dropped
+	 */
+	public void publish(int endRun) {
+		int[] record = this.record;
+		for (int i = 0; i < this.heldCount; i++) {
+			System.arraycopy(this.heldRecords, i * RECORD_SIZE, record, 0,
+					RECORD_SIZE);
+			if (record[RUN_FIELD] < endRun) {
+				this.ring.offer(record);
+			}
+		}
+		this.heldCount = 0;
+	}
+
+	/**
+	 * Hold record
+	 *
+	 * @param record Record
+	 */
+	private void hold(int[] record) {
+		int offset = this.heldCount * RECORD_SIZE;
+		if (offset == this.heldRecords.length) {
+			this.heldRecords = Arrays.copyOf(this.heldRecords,
+					Math.max(2 * offset, 64 * RECORD_SIZE));
+		}
+		System.arraycopy(record, 0, this.heldRecords, offset, RECORD_SIZE);
+		this.heldCount++;
+	}
+
+	/**
+	 * Get record ring
+	 */
+	public RecordRing getRing() {
+		return this.ring;
+	}
+
+}
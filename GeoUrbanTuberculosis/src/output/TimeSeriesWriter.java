@@ -0,0 +1,251 @@
+package output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import model.Population;
+
+public class TimeSeriesWriter {
+
+	/**
+	 * Time series magic number
+	 */
+	public static final int MAGIC = 0x47555453;
+
+	/**
+	 * Time series format version
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Buffer size (unit: bytes)
+	 */
+	public static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Header size (unit: bytes)
+	 */
+	public static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+	/**
+	 * Record size (unit: bytes)
+	 */
+	public static final int RECORD_BYTES = TimeSeriesRecorder.RECORD_SIZE
+			* Integer.BYTES;
+
+	/**
+	 * Idle wait between drains (unit: milliseconds)
+	 */
+	public static final long IDLE_WAIT = 1;
+
+	/**
+	 * Registered recorders
+	 */
+	private List<TimeSeriesRecorder> recorders;
+
+	/**
+	 * File channel
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Write buffer
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Background writer thread
+	 */
+	private Thread thread;
+
+	/**
+	 * Running flag
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Sync request flag
+	 */
+	private volatile boolean syncRequested;
+
+	/**
+	 * Number of records written to the channel
+	 */
+	private volatile long recordCount;
+
+	/**
+	 * Number of records in the write buffer
+	 */
+	private int bufferedRecords;
+
+	/**
+	 * Create a new time series writer and start its background thread. The
+	 * file holds a header (magic, version, integers per record) followed by
+	 * fixed-size records.
+	 *
+	 * @param path Time series path
+	 */
+	public TimeSeriesWriter(String path) throws IOException {
+		this(path, -1);
+	}
+
+	/**
+	 * Create a time series writer resuming after a given number of records
+	 * and start its background thread. Records past them belong to runs
+	 * that are simulated again, so they are dropped.
+	 *
+	 * @param path    Time series path
+	 * @param records Number of records to keep (negative for a new file)
+	 */
+	public TimeSeriesWriter(String path, long records) throws IOException {
+		Path file = Paths.get(path);
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		if (records < 0) {
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			this.buffer.putInt(MAGIC);
+			this.buffer.putInt(VERSION);
+			this.buffer.putInt(TimeSeriesRecorder.RECORD_SIZE);
+		} else {
+			long size = HEADER_SIZE + records * RECORD_BYTES;
+			this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+			if (this.channel.size() < size) {
+				this.channel.close();
+				throw new IOException(String.format(
+						"%s holds fewer than %d records", path, records));
+			}
+			this.channel.truncate(size);
+			this.channel.position(size);
+			this.recordCount = records;
+		}
+		this.recorders = new CopyOnWriteArrayList<>();
+		this.running = true;
+		this.thread = new Thread(this::drainUntilClosed, "time-series-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Create a recorder drained by this writer
+	 *
+	 * @param population    Population store
+	 * @param outputManager Output manager
+	 */
+	public TimeSeriesRecorder createRecorder(Population population,
+			OutputManager outputManager) {
+		TimeSeriesRecorder recorder = new TimeSeriesRecorder(population,
+				outputManager);
+		this.recorders.add(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Write every record recorded so far to the file and wait until it is
+	 * on disk
+	 *
+	 * @return Number of records in the file
+	 */
+	public long sync() {
+		this.syncRequested = true;
+		while (this.syncRequested && this.thread.isAlive()) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_WAIT));
+		}
+		return this.recordCount;
+	}
+
+	/**
+	 * Drain the remaining records and close the file
+	 */
+	public void close() {
+		this.running = false;
+		try {
+			this.thread.join();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		long dropped = 0;
+		for (TimeSeriesRecorder recorder : this.recorders) {
+			dropped += recorder.getRing().getDropped();
+		}
+		if (dropped > 0) {
+			System.err.printf("> Time series dropped %d records%n", dropped);
+		}
+	}
+
+	/**
+	 * Drain recorders until closed (background thread)
+	 */
+	private void drainUntilClosed() {
+		int[] record = new int[TimeSeriesRecorder.RECORD_SIZE];
+		try {
+			while (this.running) {
+				boolean sync = this.syncRequested;
+				int drained = drain(record);
+				if (sync) {
+					flush();
+					this.channel.force(false);
+					this.syncRequested = false;
+				} else if (drained == 0) {
+					LockSupport
+							.parkNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_WAIT));
+				}
+			}
+			drain(record);
+			flush();
+			this.channel.close();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+	/**
+	 * Drain every recorder's ring into the buffer
+	 *
+	 * @param record Record scratch space
+	 * @return Number of records drained
+	 */
+	private int drain(int[] record) throws IOException {
+		int drained = 0;
+		for (TimeSeriesRecorder recorder : this.recorders) {
+			RecordRing ring = recorder.getRing();
+			while (ring.poll(record)) {
+				if (this.buffer.remaining() < RECORD_BYTES) {
+					flush();
+				}
+				for (int value : record) {
+					this.buffer.putInt(value);
+				}
+				this.bufferedRecords++;
+				drained++;
+			}
+		}
+		return drained;
+	}
+
+	/**
+	 * Flush buffer to the channel
+	 */
+	private void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+		this.recordCount += this.bufferedRecords;
+		this.bufferedRecords = 0;
+	}
+
+}
@@ -0,0 +1,86 @@
+package simulation;
+
+import repast.simphony.engine.schedule.IAction;
+
+public class CitizenAction implements IAction {
+
+	/**
+	 * Reference to simulation builder
+	 */
+	private SimulationBuilder simulationBuilder;
+
+	/**
+	 * Citizen id
+	 */
+	private int citizen;
+
+	/**
+	 * Event ordinal
+	 */
+	private int event;
+
+	/**
+	 * Interval (zero for one-time events)
+	 */
+	private double interval;
+
+	/**
+	 * Cancellation token
+	 */
+	private long token;
+
+	/**
+	 * Create a new citizen action
+	 *
+	 * @param simulationBuilder Simulation builder
+	 * @param citizen           Citizen id
+	 * @param event             Event ordinal
+	 * @param interval          Interval (zero for one-time events)
+	 * @param token             Cancellation token
+	 */
+	public CitizenAction(SimulationBuilder simulationBuilder, int citizen,
+			int event, double interval, long token) {
+		this.simulationBuilder = simulationBuilder;
+		this.citizen = citizen;
+		this.event = event;
+		this.interval = interval;
+		this.token = token;
+	}
+
+	/**
+	 * Execute
+	 */
+	@Override
+	public void execute() {
+		this.simulationBuilder.fireAction(this);
+	}
+
+	/**
+	 * Get citizen id
+	 */
+	public int getCitizen() {
+		return this.citizen;
+	}
+
+	/**
+	 * Get event ordinal
+	 */
+	public int getEvent() {
+		return this.event;
+	}
+
+	/**
+	 * Get interval
+	 */
+	public double getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Get cancellation token
+	 */
+	public long getToken() {
+		return this.token;
+	}
+
+}
@@ -0,0 +1,127 @@
+package simulation;
+
+import model.CellIndex;
+import model.Citizen;
+import model.Population;
+
+public class CityGrid {
+
+	/**
+	 * City's length
+	 */
+	private final int length;
+
+	/**
+	 * City's width
+	 */
+	private final int width;
+
+	/**
+	 * Population store
+	 */
+	private Population population;
+
+	/**
+	 * Cell index
+	 */
+	private CellIndex cellIndex;
+
+	/**
+	 * Create a new city grid
+	 *
+	 * @param length     City's length
+	 * @param width      City's width
+	 * @param population Population store
+	 * @param cellIndex  Cell index
+	 */
+	public CityGrid(int length, int width, Population population,
+			CellIndex cellIndex) {
+		this.length = length;
+		this.width = width;
+		this.population = population;
+		this.cellIndex = cellIndex;
+	}
+
+	/**
+	 * Move citizen to location
+	 *
+	 * @param citizen Citizen
+	 * @param x       X coordinate
+	 * @param y       Y coordinate
+	 */
+	public void moveTo(Citizen citizen, double x, double y) {
+		int id = citizen.getId();
+		double wrappedX = wrap(x, this.length);
+		double wrappedY = wrap(y, this.width);
+		this.population.setLocation(id, wrappedX, wrappedY);
+		this.cellIndex.moveTo(id,
+				this.cellIndex.getCellKey(wrappedX, wrappedY));
+	}
+
+	/**
+	 * Place every citizen at their household and rebuild the cell index
+	 */
+	public void placeAtHouseholds() {
+		Population population = this.population;
+		for (int id = 0; id < population.size(); id++) {
+			population.setLocation(id,
+					wrap(population.getHouseholdX(id), this.length),
+					wrap(population.getHouseholdY(id), this.width));
+		}
+		this.cellIndex.rebuild();
+	}
+
+	/**
+	 * Move citizen by displacement
+	 *
+	 * @param citizen Citizen
+	 * @param x       Displacement along the x axis
+	 * @param y       Displacement along the y axis
+	 */
+	public void moveByDisplacement(Citizen citizen, double x, double y) {
+		int id = citizen.getId();
+		Population population = this.population;
+		moveTo(citizen, population.getX(id) + x, population.getY(id) + y);
+	}
+
+	/**
+	 * Move walking citizens by displacement
+	 *
+	 * @param displacements Displacements along the x and y axes,
+	 *                      interleaved by citizen id
+	 */
+	public void moveWalkers(double[] displacements) {
+		Population population = this.population;
+		CellIndex cellIndex = this.cellIndex;
+		for (int id = 0; id < population.size(); id++) {
+			if (!population.hasFlag(id, Population.WALKING)) {
+				continue;
+			}
+			double x = wrap(population.getX(id) + displacements[2 * id],
+					this.length);
+			double y = wrap(population.getY(id) + displacements[2 * id + 1],
+					this.width);
+			population.setLocation(id, x, y);
+			cellIndex.moveTo(id, cellIndex.getCellKey(x, y));
+		}
+	}
+
+	/**
+	 * Wrap coordinate around the city's borders
+	 *
+	 * @param value  Coordinate
+	 * @param extent Extent
+	 */
+	private static double wrap(double value, int extent) {
+		// Skip the floating-point remainder for in-range coordinates
+		if (value >= 0 && value < extent) {
+			return value;
+		}
+		double wrapped = value % extent;
+		if (wrapped < 0) {
+			wrapped += extent;
+		}
+		return (wrapped >= extent) ? 0 : wrapped;
+	}
+
+}
@@ -0,0 +1,242 @@
+package simulation;
+
+import java.util.Arrays;
+import util.TickConverter;
+
+public class EventCalendar {
+
+	/**
+	 * Bucket width (unit: hours)
+	 */
+	public static final int BUCKET_WIDTH = TickConverter.TICKS_PER_DAY;
+
+	/**
+	 * Number of buckets (days sharing a bucket are a whole calendar apart)
+	 */
+	private static final int BUCKETS = 1024;
+
+	/**
+	 * Initial capacity
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Event times by entry
+	 */
+	private double[] times;
+
+	/**
+	 * Event sequence numbers by entry
+	 */
+	private long[] sequences;
+
+	/**
+	 * Event citizens by entry
+	 */
+	private int[] citizens;
+
+	/**
+	 * Event types by entry
+	 */
+	private byte[] events;
+
+	/**
+	 * Event intervals by entry
+	 */
+	private double[] intervals;
+
+	/**
+	 * Event cancellation tokens by entry
+	 */
+	private long[] tokens;
+
+	/**
+	 * Next entry in the same bucket, or in the free list
+	 */
+	private int[] next;
+
+	/**
+	 * First entry by bucket
+	 */
+	private int[] heads;
+
+	/**
+	 * First free entry
+	 */
+	private int freeHead;
+
+	/**
+	 * Number of allocated entries
+	 */
+	private int entryCount;
+
+	/**
+	 * Number of events in the calendar
+	 */
+	private int size;
+
+	/**
+	 * Create a new event calendar
+	 */
+	public EventCalendar() {
+		this.times = new double[INITIAL_CAPACITY];
+		this.sequences = new long[INITIAL_CAPACITY];
+		this.citizens = new int[INITIAL_CAPACITY];
+		this.events = new byte[INITIAL_CAPACITY];
+		this.intervals = new double[INITIAL_CAPACITY];
+		this.tokens = new long[INITIAL_CAPACITY];
+		this.next = new int[INITIAL_CAPACITY];
+		this.heads = new int[BUCKETS];
+		clear();
+	}
+
+	/**
+	 * Get the day of a given time
+	 *
+	 * @param time Time
+	 */
+	public static long getDay(double time) {
+		return (long) Math.floor(time / BUCKET_WIDTH);
+	}
+
+	/**
+	 * Push event
+	 *
+	 * @param time     Time
+	 * @param sequence Sequence number
+	 * @param citizen  Citizen id
+	 * @param event    Event ordinal
+	 * @param interval Interval (zero for one-time events)
+	 * @param token    Cancellation token
+	 */
+	public void push(double time, long sequence, int citizen, int event,
+			double interval, long token) {
+		int entry = allocate();
+		this.times[entry] = time;
+		this.sequences[entry] = sequence;
+		this.citizens[entry] = citizen;
+		this.events[entry] = (byte) event;
+		this.intervals[entry] = interval;
+		this.tokens[entry] = token;
+		int bucket = (int) (getDay(time) & (BUCKETS - 1));
+		this.next[entry] = this.heads[bucket];
+		this.heads[bucket] = entry;
+		this.size++;
+	}
+
+	/**
+	 * Is empty?
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Get size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Hand a day's events over to a sink and remove them
+	 *
+	 * @param day  Day
+	 * @param sink Sink
+	 */
+	public void promote(long day, Sink sink) {
+		int bucket = (int) (day & (BUCKETS - 1));
+		int previous = -1;
+		int entry = this.heads[bucket];
+		while (entry >= 0) {
+			int following = this.next[entry];
+			if (getDay(this.times[entry]) == day) {
+				sink.accept(this.times[entry], this.sequences[entry],
+						this.citizens[entry], this.events[entry],
+						this.intervals[entry], this.tokens[entry]);
+				unlink(bucket, previous, entry);
+			} else {
+				previous = entry;
+			}
+			entry = following;
+		}
+	}
+
+	/**
+	 * Remove all events
+	 */
+	public void clear() {
+		Arrays.fill(this.heads, -1);
+		this.freeHead = -1;
+		this.entryCount = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Unlink entry from its bucket and free it
+	 *
+	 * @param bucket   Bucket
+	 * @param previous Previous entry in the bucket (negative for none)
+	 * @param entry    Entry
+	 */
+	private void unlink(int bucket, int previous, int entry) {
+		if (previous < 0) {
+			this.heads[bucket] = this.next[entry];
+		} else {
+			this.next[previous] = this.next[entry];
+		}
+		this.next[entry] = this.freeHead;
+		this.freeHead = entry;
+		this.size--;
+	}
+
+	/**
+	 * Allocate entry
+	 */
+	private int allocate() {
+		if (this.freeHead >= 0) {
+			int entry = this.freeHead;
+			this.freeHead = this.next[entry];
+			return entry;
+		}
+		if (this.entryCount == this.times.length) {
+			grow();
+		}
+		return this.entryCount++;
+	}
+
+	/**
+	 * Grow capacity
+	 */
+	private void grow() {
+		int capacity = this.times.length * 2;
+		this.times = Arrays.copyOf(this.times, capacity);
+		this.sequences = Arrays.copyOf(this.sequences, capacity);
+		this.citizens = Arrays.copyOf(this.citizens, capacity);
+		this.events = Arrays.copyOf(this.events, capacity);
+		this.intervals = Arrays.copyOf(this.intervals, capacity);
+		this.tokens = Arrays.copyOf(this.tokens, capacity);
+		this.next = Arrays.copyOf(this.next, capacity);
+	}
+
+	/**
+	 * Receiver of promoted events
+	 */
+	public interface Sink {
+
+		/**
+		 * Accept event
+		 *
+		 * @param time     Time
+		 * @param sequence Sequence number
+		 * @param citizen  Citizen id
+		 * @param event    Event ordinal
+		 * @param interval Interval (zero for one-time events)
+		 * @param token    Cancellation token
+		 */
+		void accept(double time, long sequence, int citizen, int event,
+				double interval, long token);
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package simulation;
+
+import model.CitizenEvent;
+
+public class EventGenerations {
+
+	/**
+	 * Number of citizen event types
+	 */
+	private static final int EVENT_TYPES = CitizenEvent.values().length;
+
+	/**
+	 * Generations by citizen and event type
+	 */
+	private int[] generations;
+
+	/**
+	 * Epoch (advanced to cancel every event at once)
+	 */
+	private int epoch;
+
+	/**
+	 * Create new event generations
+	 *
+	 * @param citizenCount Number of citizens
+	 */
+	public EventGenerations(int citizenCount) {
+		this.generations = new int[citizenCount * EVENT_TYPES];
+	}
+
+	/**
+	 * Get the token an event scheduled now carries. The event stays current
+	 * until it is cancelled.
+	 *
+	 * @param citizen Citizen id
+	 * @param event   Event ordinal
+	 */
+	public long getToken(int citizen, int event) {
+		int generation = this.generations[citizen * EVENT_TYPES + event];
+		return ((long) this.epoch << 32) | (generation & 0xffffffffL);
+	}
+
+	/**
+	 * Is an event carrying a given token current?
+	 *
+	 * @param token   Token
+	 * @param citizen Citizen id
+	 * @param event   Event ordinal
+	 */
+	public boolean isCurrent(long token, int citizen, int event) {
+		return token == getToken(citizen, event);
+	}
+
+	/**
+	 * Cancel the scheduled events of a given type for a citizen
+	 *
+	 * @param citizen Citizen id
+	 * @param event   Event ordinal
+	 */
+	public void cancel(int citizen, int event) {
+		this.generations[citizen * EVENT_TYPES + event]++;
+	}
+
+	/**
+	 * Cancel the scheduled events for a citizen
+	 *
+	 * @param citizen Citizen id
+	 */
+	public void cancelAll(int citizen) {
+		int offset = citizen * EVENT_TYPES;
+		for (int i = 0; i < EVENT_TYPES; i++) {
+			this.generations[offset + i]++;
+		}
+	}
+
+	/**
+	 * Cancel every scheduled event
+	 */
+	public void cancelEverything() {
+		this.epoch++;
+	}
+
+}
@@ -0,0 +1,334 @@
+package simulation;
+
+import java.util.Arrays;
+
+public class EventQueue {
+
+	/**
+	 * Initial capacity
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Event times
+	 */
+	private double[] times;
+
+	/**
+	 * Event sequence numbers (ties are resolved in insertion order)
+	 */
+	private long[] sequences;
+
+	/**
+	 * Event citizens
+	 */
+	private int[] citizens;
+
+	/**
+	 * Event types
+	 */
+	private byte[] events;
+
+	/**
+	 * Event intervals (zero for one-time events)
+	 */
+	private double[] intervals;
+
+	/**
+	 * Event cancellation tokens
+	 */
+	private long[] tokens;
+
+	/**
+	 * Number of events in the heap
+	 */
+	private int size;
+
+	/**
+	 * Next sequence number
+	 */
+	private long nextSequence;
+
+	/**
+	 * Calendar holding the events past the heap's day
+	 */
+	private EventCalendar calendar;
+
+	/**
+	 * Heap's day (the heap holds the events before its end)
+	 */
+	private long day;
+
+	/**
+	 * End of the heap's day
+	 */
+	private double horizon;
+
+	/**
+	 * Inserts promoted events into the heap
+	 */
+	private EventCalendar.Sink promotion;
+
+	/**
+	 * Create a new event queue
+	 */
+	public EventQueue() {
+		this.times = new double[INITIAL_CAPACITY];
+		this.sequences = new long[INITIAL_CAPACITY];
+		this.citizens = new int[INITIAL_CAPACITY];
+		this.events = new byte[INITIAL_CAPACITY];
+		this.intervals = new double[INITIAL_CAPACITY];
+		this.tokens = new long[INITIAL_CAPACITY];
+		this.calendar = new EventCalendar();
+		this.promotion = this::insert;
+	}
+
+	/**
+	 * Push event
+	 *
+	 * @param time     Time
+	 * @param citizen  Citizen id
+	 * @param event    Event ordinal
+	 * @param interval Interval (zero for one-time events)
+	 * @param token    Cancellation token
+	 */
+	public void push(double time, int citizen, int event, double interval,
+			long token) {
+		long sequence = this.nextSequence++;
+		if (isEmpty()) {
+			this.day = EventCalendar.getDay(time);
+			this.horizon = (this.day + 1) * EventCalendar.BUCKET_WIDTH;
+		}
+		if (time < this.horizon) {
+			insert(time, sequence, citizen, event, interval, token);
+		} else {
+			this.calendar.push(time, sequence, citizen, event, interval,
+					token);
+			promote();
+		}
+	}
+
+	/**
+	 * Is empty?
+	 */
+	public boolean isEmpty() {
+		return this.size == 0 && this.calendar.isEmpty();
+	}
+
+	/**
+	 * Get size
+	 */
+	public int size() {
+		return this.size + this.calendar.size();
+	}
+
+	/**
+	 * Peek time of the next event
+	 */
+	public double peekTime() {
+		return this.times[0];
+	}
+
+	/**
+	 * Peek citizen of the next event
+	 */
+	public int peekCitizen() {
+		return this.citizens[0];
+	}
+
+	/**
+	 * Peek type of the next event
+	 */
+	public int peekEvent() {
+		return this.events[0];
+	}
+
+	/**
+	 * Peek interval of the next event
+	 */
+	public double peekInterval() {
+		return this.intervals[0];
+	}
+
+	/**
+	 * Peek cancellation token of the next event
+	 */
+	public long peekToken() {
+		return this.tokens[0];
+	}
+
+	/**
+	 * Remove the next event
+	 */
+	public void poll() {
+		removeAt(0);
+		promote();
+	}
+
+	/**
+	 * Remove all events
+	 */
+	public void clear() {
+		this.size = 0;
+		this.calendar.clear();
+	}
+
+	/**
+	 * Insert event into the heap
+	 *
+	 * @param time     Time
+	 * @param sequence Sequence number
+	 * @param citizen  Citizen id
+	 * @param event    Event ordinal
+	 * @param interval Interval (zero for one-time events)
+	 * @param token    Cancellation token
+	 */
+	private void insert(double time, long sequence, int citizen, int event,
+			double interval, long token) {
+		if (this.size == this.times.length) {
+			grow();
+		}
+		int i = this.size++;
+		this.times[i] = time;
+		this.sequences[i] = sequence;
+		this.citizens[i] = citizen;
+		this.events[i] = (byte) event;
+		this.intervals[i] = interval;
+		this.tokens[i] = token;
+		siftUp(i);
+	}
+
+	/**
+	 * Move the heap on to the calendar's following days until it holds an
+	 * event. Calendar events all come after the heap's, so the heap's head
+	 * is the next event.
+	 */
+	private void promote() {
+		while (this.size == 0 && !this.calendar.isEmpty()) {
+			this.day++;
+			this.horizon += EventCalendar.BUCKET_WIDTH;
+			this.calendar.promote(this.day, this.promotion);
+		}
+	}
+
+	/**
+	 * Remove event at index
+	 *
+	 * @param i Index
+	 */
+	private void removeAt(int i) {
+		int last = --this.size;
+		if (i != last) {
+			copy(last, i);
+			siftDown(i);
+			siftUp(i);
+		}
+	}
+
+	/**
+	 * Restore the heap property upwards
+	 *
+	 * @param i Index
+	 */
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!precedes(i, parent)) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	/**
+	 * Restore the heap property downwards
+	 *
+	 * @param i Index
+	 */
+	private void siftDown(int i) {
+		while (true) {
+			int left = 2 * i + 1;
+			if (left >= this.size) {
+				break;
+			}
+			int right = left + 1;
+			int child = (right < this.size && precedes(right, left)) ? right
+					: left;
+			if (!precedes(child, i)) {
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	/**
+	 * Does event A precede event B?
+	 *
+	 * @param a Index of event A
+	 * @param b Index of event B
+	 */
+	private boolean precedes(int a, int b) {
+		double timeA = this.times[a];
+		double timeB = this.times[b];
+		return timeA < timeB
+				|| (timeA == timeB && this.sequences[a] < this.sequences[b]);
+	}
+
+	/**
+	 * Swap events
+	 *
+	 * @param a Index of event A
+	 * @param b Index of event B
+	 */
+	private void swap(int a, int b) {
+		double time = this.times[a];
+		this.times[a] = this.times[b];
+		this.times[b] = time;
+		long sequence = this.sequences[a];
+		this.sequences[a] = this.sequences[b];
+		this.sequences[b] = sequence;
+		int citizen = this.citizens[a];
+		this.citizens[a] = this.citizens[b];
+		this.citizens[b] = citizen;
+		byte event = this.events[a];
+		this.events[a] = this.events[b];
+		this.events[b] = event;
+		double interval = this.intervals[a];
+		this.intervals[a] = this.intervals[b];
+		this.intervals[b] = interval;
+		long token = this.tokens[a];
+		this.tokens[a] = this.tokens[b];
+		this.tokens[b] = token;
+	}
+
+	/**
+	 * Copy event
+	 *
+	 * @param from Source index
+	 * @param to   Target index
+	 */
+	private void copy(int from, int to) {
+		this.times[to] = this.times[from];
+		this.sequences[to] = this.sequences[from];
+		this.citizens[to] = this.citizens[from];
+		this.events[to] = this.events[from];
+		this.intervals[to] = this.intervals[from];
+		this.tokens[to] = this.tokens[from];
+	}
+
+	/**
+	 * Grow capacity
+	 */
+	private void grow() {
+		int capacity = this.times.length * 2;
+		this.times = Arrays.copyOf(this.times, capacity);
+		this.sequences = Arrays.copyOf(this.sequences, capacity);
+		this.citizens = Arrays.copyOf(this.citizens, capacity);
+		this.events = Arrays.copyOf(this.events, capacity);
+		this.intervals = Arrays.copyOf(this.intervals, capacity);
+		this.tokens = Arrays.copyOf(this.tokens, capacity);
+	}
+
+}
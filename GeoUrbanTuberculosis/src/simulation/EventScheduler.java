@@ -1,6 +1,7 @@
 package simulation;
 
 import repast.simphony.engine.environment.RunEnvironment;
+import repast.simphony.engine.schedule.IAction;
 import repast.simphony.engine.schedule.ISchedulableAction;
 import repast.simphony.engine.schedule.ISchedule;
 import repast.simphony.engine.schedule.ScheduleParameters;
@@ -46,6 +47,34 @@ public class EventScheduler {
 		return schedule.schedule(params, obj, methodName, methodParams);
 	}
 
+	/**
+	 * Schedule one-time event at a given tick
+	 * 
+	 * @param tick         Tick
+	 * @param obj          Object
+	 * @param methodName   Method's name
+	 * @param methodParams Method's parameters
+	 */
+	public ISchedulableAction scheduleOneTimeEventAt(double tick, Object obj,
+			String methodName, Object... methodParams) {
+		ISchedule schedule = RunEnvironment.getInstance().getCurrentSchedule();
+		ScheduleParameters params = ScheduleParameters.createOneTime(tick);
+		return schedule.schedule(params, obj, methodName, methodParams);
+	}
+
+	/**
+	 * Schedule one-time action at a given tick
+	 * 
+	 * @param tick   Tick
+	 * @param action Action
+	 */
+	public ISchedulableAction scheduleOneTimeEventAt(double tick,
+			IAction action) {
+		ISchedule schedule = RunEnvironment.getInstance().getCurrentSchedule();
+		ScheduleParameters params = ScheduleParameters.createOneTime(tick);
+		return schedule.schedule(params, action);
+	}
+
 	/**
 	 * Schedule recurring event
 	 * 
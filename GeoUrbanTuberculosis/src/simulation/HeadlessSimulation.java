@@ -0,0 +1,963 @@
+package simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import calibration.CalibrationParameter;
+import calibration.Calibrator;
+import calibration.EvaluationCache;
+import config.SourcePaths;
+import datasource.CheckpointReader;
+import datasource.Reader;
+import model.CellIndex;
+import model.Citizen;
+import model.CitizenEvent;
+import model.ExposureSweep;
+import model.MovementSweep;
+import model.Population;
+import model.RandomStreams;
+import output.CheckpointWriter;
+import output.OutputManager;
+import output.TimeSeriesRecorder;
+import output.TimeSeriesWriter;
+import repast.simphony.random.RandomHelper;
+import repast.simphony.util.collections.Pair;
+
+public class HeadlessSimulation implements World {
+
+	/**
+	 * Random seed parameter id
+	 */
+	private static final String RANDOM_SEED_PARAM_ID = "randomSeed";
+
+	/**
+	 * Replica workers parameter id
+	 */
+	private static final String REPLICA_WORKERS_PARAM_ID = "replicaWorkers";
+
+	/**
+	 * Evaluation cache parameter id
+	 */
+	private static final String EVALUATION_CACHE_PARAM_ID = "evaluationCache";
+
+	/**
+	 * Checkpoint interval parameter id
+	 */
+	private static final String CHECKPOINT_INTERVAL_PARAM_ID = "checkpointInterval";
+
+	/**
+	 * Time series interval parameter id
+	 */
+	private static final String TIME_SERIES_INTERVAL_PARAM_ID = "timeSeriesInterval";
+
+	/**
+	 * City's length parameter id
+	 */
+	private static final String CITY_LENGTH_PARAM_ID = "cityLength";
+
+	/**
+	 * City's width parameter id
+	 */
+	private static final String CITY_WIDTH_PARAM_ID = "cityWidth";
+
+	/**
+	 * Calibration setup
+	 */
+	private Map<String, CalibrationParameter> calibrationSetup;
+
+	/**
+	 * Parameters adapter
+	 */
+	private ParametersAdapter parametersAdapter;
+
+	/**
+	 * Output manager
+	 */
+	private OutputManager outputManager;
+
+	/**
+	 * Population store
+	 */
+	private Population population;
+
+	/**
+	 * Citizens by id
+	 */
+	private List<Citizen> citizens;
+
+	/**
+	 * City's length
+	 */
+	private int cityLength;
+
+	/**
+	 * City's width
+	 */
+	private int cityWidth;
+
+	/**
+	 * Cell index
+	 */
+	private CellIndex cellIndex;
+
+	/**
+	 * Event queue
+	 */
+	private EventQueue eventQueue;
+
+	/**
+	 * Timing wheel for daily recurring events
+	 */
+	private TimingWheel timingWheel;
+
+	/**
+	 * Event generations (cancelled events are dropped when they come up)
+	 */
+	private EventGenerations generations;
+
+	/**
+	 * City grid
+	 */
+	private CityGrid cityGrid;
+
+	/**
+	 * Exposure sweep
+	 */
+	private ExposureSweep exposureSweep;
+
+	/**
+	 * Movement sweep
+	 */
+	private MovementSweep movementSweep;
+
+	/**
+	 * Next movement sweep tick
+	 */
+	private double nextMoveTick;
+
+	/**
+	 * Next exposure sweep tick
+	 */
+	private double nextSweepTick;
+
+	/**
+	 * Base random seed
+	 */
+	private long seed;
+
+	/**
+	 * Model parameters
+	 */
+	private Map<String, Double> parameters;
+
+	/**
+	 * Model parameters affecting replica outputs
+	 */
+	private Map<String, Double> fixedParameters;
+
+	/**
+	 * Evaluation cache (null if disabled)
+	 */
+	private EvaluationCache evaluationCache;
+
+	/**
+	 * Replicas between calibration checkpoints (0 if disabled)
+	 */
+	private int checkpointInterval;
+
+	/**
+	 * Ticks between time series samples (0 if disabled)
+	 */
+	private double timeSeriesInterval;
+
+	/**
+	 * Time series recorder (null if disabled)
+	 */
+	private TimeSeriesRecorder timeSeriesRecorder;
+
+	/**
+	 * Time series records at the restored checkpoint (negative if none)
+	 */
+	private long checkpointRecords = -1;
+
+	/**
+	 * Next time series sample tick
+	 */
+	private double nextSampleTick;
+
+	/**
+	 * Current simulation run
+	 */
+	private int run;
+
+	/**
+	 * Current tick
+	 */
+	private double tick;
+
+	/**
+	 * Fired citizen events
+	 */
+	private long eventCount;
+
+	/**
+	 * Create a new headless simulation, seeding the shared random stream
+	 *
+	 * @param parameters Model parameters
+	 */
+	public HeadlessSimulation(Map<String, Double> parameters) {
+		this(parameters, initSeed(parameters));
+	}
+
+	/**
+	 * Create a new headless simulation with a given base random seed
+	 *
+	 * @param parameters Model parameters
+	 * @param seed       Base random seed
+	 */
+	public HeadlessSimulation(Map<String, Double> parameters, long seed) {
+		this.parameters = parameters;
+		this.seed = seed;
+		this.fixedParameters = new HashMap<>(parameters);
+		this.fixedParameters.remove(REPLICA_WORKERS_PARAM_ID);
+		this.fixedParameters.remove(EVALUATION_CACHE_PARAM_ID);
+		this.fixedParameters.remove(CHECKPOINT_INTERVAL_PARAM_ID);
+		this.fixedParameters.remove(TIME_SERIES_INTERVAL_PARAM_ID);
+		this.checkpointInterval = parameters
+				.getOrDefault(CHECKPOINT_INTERVAL_PARAM_ID, 0.0).intValue();
+		this.timeSeriesInterval = parameters
+				.getOrDefault(TIME_SERIES_INTERVAL_PARAM_ID, 0.0);
+		this.cityLength = parameters.getOrDefault(CITY_LENGTH_PARAM_ID,
+				(double) SimulationBuilder.CITY_LENGTH).intValue();
+		this.cityWidth = parameters.getOrDefault(CITY_WIDTH_PARAM_ID,
+				(double) SimulationBuilder.CITY_WIDTH).intValue();
+		this.calibrationSetup = Reader
+				.readCalibrationSetup(SourcePaths.CALIBRATION_SETUP_DATABASE);
+		this.parametersAdapter = new ParametersAdapter(parameters);
+		this.parametersAdapter.init();
+		this.eventQueue = new EventQueue();
+		this.timingWheel = new TimingWheel();
+		this.citizens = createCitizens();
+		this.generations = new EventGenerations(this.citizens.size());
+		this.outputManager = new OutputManager(this.population);
+		this.cellIndex = new CellIndex(this.cityLength, this.cityWidth,
+				this.population);
+		this.cityGrid = new CityGrid(this.cityLength, this.cityWidth,
+				this.population, this.cellIndex);
+		this.exposureSweep = new ExposureSweep(this);
+		this.movementSweep = new MovementSweep(this);
+	}
+
+	/**
+	 * Run a headless calibration with the default model parameters
+	 *
+	 * @param args Command line arguments
+	 */
+	public static void main(String[] args) {
+		Map<String, Double> parameters = Reader
+				.readParameters(SourcePaths.PARAMETERS_DATABASE);
+		HeadlessSimulation simulation = new HeadlessSimulation(parameters);
+		Double evaluationCache = parameters.get(EVALUATION_CACHE_PARAM_ID);
+		if (evaluationCache != null && evaluationCache > 0) {
+			simulation.setEvaluationCache(
+					new EvaluationCache(SourcePaths.EVALUATION_CACHE));
+		}
+		Double workers = parameters.get(REPLICA_WORKERS_PARAM_ID);
+		if (workers == null) {
+			workers = (double) Runtime.getRuntime().availableProcessors();
+		}
+		if (workers > 1) {
+			simulation.calibrateInParallel(workers.intValue());
+		} else {
+			simulation.calibrate();
+		}
+	}
+
+	/**
+	 * Calibrate
+	 */
+	public void calibrate() {
+		Calibrator calibrator = new Calibrator(this);
+		calibrator.initCalibration();
+		int run = restoreCheckpoint(calibrator);
+		int lastCheckpointRun = run;
+		TimeSeriesWriter timeSeriesWriter = openTimeSeriesWriter();
+		setTimeSeriesWriter(timeSeriesWriter);
+		try {
+			while (calibrator
+					.getCalibrationStep() < Calibrator.MAX_CALIBRATION_STEPS) {
+				calibrator.onReplicasCompleted(
+						Collections.singletonList(evaluateReplica(run++)));
+				if (this.checkpointInterval > 0
+						&& run - lastCheckpointRun >= this.checkpointInterval) {
+					saveCheckpoint(calibrator, run, timeSeriesWriter);
+					lastCheckpointRun = run;
+				}
+			}
+			deleteCheckpoint();
+		} finally {
+			if (timeSeriesWriter != null) {
+				timeSeriesWriter.close();
+			}
+		}
+	}
+
+	/**
+	 * Calibrate running the replicas of each calibration step in parallel
+	 *
+	 * @param workers Number of workers
+	 */
+	public void calibrateInParallel(int workers) {
+		workers = Math.min(workers,
+				Calibrator.SIMULATIONS_PER_CALIBRATION_STEP);
+		Calibrator calibrator = new Calibrator(this);
+		calibrator.initCalibration();
+		int run = restoreCheckpoint(calibrator);
+		int lastCheckpointRun = run;
+		TimeSeriesWriter timeSeriesWriter = openTimeSeriesWriter();
+		ReplicaPool pool = new ReplicaPool(this.parameters, this.seed, workers,
+				this.evaluationCache, timeSeriesWriter);
+		if (Calibrator.ADAPTIVE_REPLICATION_FLAG) {
+			pool.holdTimeSeries();
+		}
+		try {
+			while (calibrator
+					.getCalibrationStep() < Calibrator.MAX_CALIBRATION_STEPS) {
+				// Adaptive steps may end early, so replicas go in batches
+				int replicas = calibrator.getRemainingReplicas();
+				if (Calibrator.ADAPTIVE_REPLICATION_FLAG) {
+					replicas = Math.min(workers, replicas);
+				}
+				// Discarded replicas' runs are reused by the next step, as in
+				// a sequential calibration, so their time series is dropped
+				run += calibrator.onReplicasCompleted(pool.runReplicas(
+						this.parametersAdapter.getTunableParameters(), run,
+						replicas));
+				pool.publishTimeSeries(run);
+				if (this.checkpointInterval > 0
+						&& run - lastCheckpointRun >= this.checkpointInterval) {
+					saveCheckpoint(calibrator, run, timeSeriesWriter);
+					lastCheckpointRun = run;
+				}
+			}
+			deleteCheckpoint();
+		} finally {
+			pool.shutdown();
+			if (timeSeriesWriter != null) {
+				timeSeriesWriter.close();
+			}
+		}
+	}
+
+	/**
+	 * Evaluate replica, reusing cached outputs when available. The world is
+	 * left reset.
+	 *
+	 * @param run Simulation run
+	 * @return Replica's infections and exposures
+	 */
+	public Pair<Integer, Integer> evaluateReplica(int run) {
+		String key = null;
+		if (this.evaluationCache != null) {
+			key = this.evaluationCache.getKey(this.fixedParameters,
+					this.parametersAdapter.getTunableParameters(),
+					RandomStreams.getReplicaSeed(this.seed, run));
+			// Cached outputs carry no time series, so recording worlds always
+			// simulate
+			Pair<Integer, Integer> outputs = (this.timeSeriesRecorder == null)
+					? this.evaluationCache.get(key)
+					: null;
+			if (outputs != null) {
+				return outputs;
+			}
+		}
+		runReplica(run);
+		Pair<Integer, Integer> outputs = new Pair<>(
+				this.outputManager.getInfections(),
+				this.outputManager.getExposures());
+		resetSimulation();
+		if (this.evaluationCache != null) {
+			this.evaluationCache.put(key, outputs);
+		}
+		return outputs;
+	}
+
+	/**
+	 * Run replica
+	 *
+	 * @param run Simulation run
+	 */
+	public void runReplica(int run) {
+		startReplica(run);
+		runUntil(this.tick + Calibrator.TICKS_PER_RUN);
+	}
+
+	/**
+	 * Start replica, leaving its events ready to run
+	 *
+	 * @param run Simulation run
+	 */
+	public void startReplica(int run) {
+		long replicaSeed = RandomStreams.getReplicaSeed(this.seed, run);
+		this.run = run;
+		this.tick = 0;
+		resetCitizens(replicaSeed);
+		this.tick = 1;
+		this.nextSweepTick = this.tick
+				+ Citizen.PARTICLE_EXPELLING_INTERVAL;
+		this.nextMoveTick = this.tick;
+		this.nextSampleTick = this.tick;
+		for (Citizen citizen : this.citizens) {
+			citizen.start();
+		}
+		this.cityGrid.placeAtHouseholds();
+	}
+
+	/**
+	 * Run events up to the end time
+	 *
+	 * @param endTime End time
+	 */
+	public void runUntil(double endTime) {
+		EventQueue queue = this.eventQueue;
+		TimingWheel wheel = this.timingWheel;
+		while (true) {
+			double queueTime = queue.isEmpty() ? Double.POSITIVE_INFINITY
+					: queue.peekTime();
+			double wheelTime = wheel.isEmpty() ? Double.POSITIVE_INFINITY
+					: wheel.peekTime();
+			double eventTime = Math.min(queueTime, wheelTime);
+			// Movement sweeps run ahead of exposure sweeps and citizen events
+			// at the same tick
+			if (Citizen.MOVEMENT_SWEEP_FLAG && this.nextMoveTick <= endTime
+					&& this.nextMoveTick <= eventTime
+					&& (!Citizen.EXPOSURE_SWEEP_FLAG
+							|| this.nextMoveTick <= this.nextSweepTick)) {
+				this.tick = this.nextMoveTick;
+				this.nextMoveTick += Citizen.TICKS_BETWEEN_STEPS;
+				this.movementSweep.sweep();
+				continue;
+			}
+			// Exposure sweeps run ahead of citizen events at the same tick
+			if (Citizen.EXPOSURE_SWEEP_FLAG && this.nextSweepTick <= endTime
+					&& this.nextSweepTick <= eventTime) {
+				this.tick = this.nextSweepTick;
+				this.nextSweepTick += Citizen.PARTICLE_EXPELLING_INTERVAL;
+				this.exposureSweep.sweep();
+				continue;
+			}
+			// Samples see the state after every event of their tick
+			if (this.timeSeriesRecorder != null
+					&& this.nextSampleTick <= endTime
+					&& this.nextSampleTick < eventTime
+					&& (!Citizen.EXPOSURE_SWEEP_FLAG
+							|| this.nextSampleTick < this.nextSweepTick)
+					&& (!Citizen.MOVEMENT_SWEEP_FLAG
+							|| this.nextSampleTick < this.nextMoveTick)) {
+				this.timeSeriesRecorder.record(this.run, this.nextSampleTick);
+				this.nextSampleTick += this.timeSeriesInterval;
+				continue;
+			}
+			if (eventTime > endTime) {
+				break;
+			}
+			int id;
+			int event;
+			// Cancelled events are dropped here. Recurring events are
+			// re-queued before firing so that firing can cancel them. Daily
+			// events on the wheel fire first on ties.
+			if (wheelTime <= queueTime) {
+				id = wheel.peekCitizen();
+				event = wheel.peekEvent();
+				long token = wheel.peekToken();
+				if (!this.generations.isCurrent(token, id, event)) {
+					wheel.discard();
+					continue;
+				}
+				wheel.poll();
+			} else {
+				id = queue.peekCitizen();
+				event = queue.peekEvent();
+				long token = queue.peekToken();
+				double interval = queue.peekInterval();
+				queue.poll();
+				if (!this.generations.isCurrent(token, id, event)) {
+					continue;
+				}
+				if (interval > 0) {
+					queue.push(eventTime + interval, id, event, interval,
+							token);
+				}
+			}
+			this.tick = eventTime;
+			CitizenEvent.fromOrdinal(event).fire(this.citizens.get(id));
+			this.eventCount++;
+		}
+		this.tick = endTime;
+	}
+
+	/**
+	 * Set a model parameter's value between replicas. Population counts,
+	 * the city's size and the seed shape the world and are fixed at
+	 * construction.
+	 *
+	 * @param parameterId    Parameter id
+	 * @param parameterValue Parameter value
+	 */
+	public void setParameterValue(String parameterId, double parameterValue) {
+		switch (parameterId) {
+		case RANDOM_SEED_PARAM_ID:
+		case CITY_LENGTH_PARAM_ID:
+		case CITY_WIDTH_PARAM_ID:
+		case ParametersAdapter.EXPOSED_COUNT_PARAM_ID:
+		case ParametersAdapter.SUSCEPTIBLE_COUNT_PARAM_ID:
+			throw new IllegalArgumentException(String.format(
+					"Parameter %s is fixed at construction", parameterId));
+		default:
+			break;
+		}
+		if (!this.parameters.containsKey(parameterId)) {
+			throw new IllegalArgumentException(
+					String.format("Unknown parameter %s", parameterId));
+		}
+		if (this.calibrationSetup.containsKey(parameterId)) {
+			this.parametersAdapter.setParameterValue(parameterId,
+					parameterValue);
+		} else {
+			this.parametersAdapter.setFixedParameterValue(parameterId,
+					parameterValue);
+			this.fixedParameters.put(parameterId, parameterValue);
+		}
+	}
+
+	/**
+	 * Set evaluation cache. Cache keys hold the replica seeds, so the cache
+	 * needs an explicit random seed: seeds drawn afresh on every launch
+	 * would never hit.
+	 *
+	 * @param evaluationCache Evaluation cache (null to disable)
+	 */
+	public void setEvaluationCache(EvaluationCache evaluationCache) {
+		if (evaluationCache != null
+				&& !this.parameters.containsKey(RANDOM_SEED_PARAM_ID)) {
+			throw new IllegalStateException(String.format(
+					"The evaluation cache needs an explicit %s parameter",
+					RANDOM_SEED_PARAM_ID));
+		}
+		this.evaluationCache = evaluationCache;
+	}
+
+	/**
+	 * Set time series writer
+	 *
+	 * @param timeSeriesWriter Time series writer (null to disable)
+	 */
+	public void setTimeSeriesWriter(TimeSeriesWriter timeSeriesWriter) {
+		this.timeSeriesRecorder = (timeSeriesWriter == null) ? null
+				: timeSeriesWriter.createRecorder(this.population,
+						this.outputManager);
+	}
+
+	/**
+	 * Hold time series records until they are published
+	 */
+	public void holdTimeSeries() {
+		if (this.timeSeriesRecorder != null) {
+			this.timeSeriesRecorder.setHeld(true);
+		}
+	}
+
+	/**
+	 * Publish the held time series records of runs before a given run and
+	 * drop the rest
+	 *
+	 * @param endRun First run whose records are dropped
+	 */
+	public void publishTimeSeries(int endRun) {
+		if (this.timeSeriesRecorder != null) {
+			this.timeSeriesRecorder.publish(endRun);
+		}
+	}
+
+	/**
+	 * Get current tick
+	 */
+	public double getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Get base random seed
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Get fired citizen events
+	 */
+	public long getEventCount() {
+		return this.eventCount;
+	}
+
+	/**
+	 * Get citizens
+	 */
+	public List<Citizen> getCitizens() {
+		return this.citizens;
+	}
+
+	/**
+	 * Get parameters adapter
+	 */
+	@Override
+	public ParametersAdapter getParametersAdapter() {
+		return this.parametersAdapter;
+	}
+
+	/**
+	 * Get population store
+	 */
+	@Override
+	public Population getPopulation() {
+		return this.population;
+	}
+
+	/**
+	 * Get citizen
+	 *
+	 * @param id Citizen id
+	 */
+	@Override
+	public Citizen getCitizen(int id) {
+		return this.citizens.get(id);
+	}
+
+	/**
+	 * Get city's length
+	 */
+	@Override
+	public int getCityLength() {
+		return this.cityLength;
+	}
+
+	/**
+	 * Get city's width
+	 */
+	@Override
+	public int getCityWidth() {
+		return this.cityWidth;
+	}
+
+	/**
+	 * Get cell index
+	 */
+	@Override
+	public CellIndex getCellIndex() {
+		return this.cellIndex;
+	}
+
+	/**
+	 * Get output manager
+	 */
+	@Override
+	public OutputManager getOutputManager() {
+		return this.outputManager;
+	}
+
+	/**
+	 * Get calibration setup
+	 */
+	@Override
+	public Map<String, CalibrationParameter> getCalibrationSetup() {
+		return this.calibrationSetup;
+	}
+
+	/**
+	 * Reset simulation
+	 */
+	@Override
+	public void resetSimulation() {
+		this.outputManager.resetOutputs();
+		this.eventQueue.clear();
+		this.timingWheel.clear(this.tick);
+	}
+
+	/**
+	 * Schedule one-time citizen event
+	 *
+	 * @param ticksToEvent Ticks to event
+	 * @param citizen      Citizen
+	 * @param event        Event
+	 */
+	@Override
+	public void scheduleOneTimeEvent(double ticksToEvent, Citizen citizen,
+			CitizenEvent event) {
+		int id = citizen.getId();
+		this.eventQueue.push(this.tick + ticksToEvent, id, event.ordinal(), 0,
+				this.generations.getToken(id, event.ordinal()));
+	}
+
+	/**
+	 * Schedule recurring citizen event
+	 *
+	 * @param ticksToEvent Ticks to event
+	 * @param citizen      Citizen
+	 * @param tickInterval Tick interval
+	 * @param event        Event
+	 */
+	@Override
+	public void scheduleRecurringEvent(double ticksToEvent, Citizen citizen,
+			double tickInterval, CitizenEvent event) {
+		int id = citizen.getId();
+		long token = this.generations.getToken(id, event.ordinal());
+		if (tickInterval == TimingWheel.PERIOD) {
+			this.timingWheel.push(this.tick + ticksToEvent, id, event.ordinal(),
+					token);
+		} else {
+			this.eventQueue.push(this.tick + ticksToEvent, id, event.ordinal(),
+					tickInterval, token);
+		}
+	}
+
+	/**
+	 * Unschedule citizen event
+	 *
+	 * @param citizen Citizen
+	 * @param event   Event
+	 */
+	@Override
+	public void unscheduleEvent(Citizen citizen, CitizenEvent event) {
+		this.generations.cancel(citizen.getId(), event.ordinal());
+	}
+
+	/**
+	 * Unschedule all citizen events
+	 *
+	 * @param citizen Citizen
+	 */
+	@Override
+	public void unscheduleEvents(Citizen citizen) {
+		this.generations.cancelAll(citizen.getId());
+	}
+
+	/**
+	 * Move citizen by displacement
+	 *
+	 * @param citizen Citizen
+	 * @param x       Displacement along the x axis
+	 * @param y       Displacement along the y axis
+	 */
+	@Override
+	public void moveByDisplacement(Citizen citizen, double x, double y) {
+		this.cityGrid.moveByDisplacement(citizen, x, y);
+	}
+
+	/**
+	 * Move walking citizens by displacement
+	 *
+	 * @param displacements Displacements along the x and y axes,
+	 *                      interleaved by citizen id
+	 */
+	@Override
+	public void moveWalkers(double[] displacements) {
+		this.cityGrid.moveWalkers(displacements);
+	}
+
+	/**
+	 * Move citizen to location
+	 *
+	 * @param citizen Citizen
+	 * @param x       X coordinate
+	 * @param y       Y coordinate
+	 */
+	@Override
+	public void moveTo(Citizen citizen, double x, double y) {
+		this.cityGrid.moveTo(citizen, x, y);
+	}
+
+	/**
+	 * Reset citizens in bulk and redraw their attributes
+	 *
+	 * @param replicaSeed Replica seed
+	 */
+	private void resetCitizens(long replicaSeed) {
+		this.eventQueue.clear();
+		this.timingWheel.clear(this.tick);
+		this.cellIndex.clear();
+		this.population.clearFlags(Population.NOTIFIED_EXPOSURE
+				| Population.NOTIFIED_INFECTION | Population.WALKING);
+		for (Citizen citizen : this.citizens) {
+			citizen.seedRandom(replicaSeed);
+			citizen.init();
+		}
+		this.movementSweep.seedRandom(replicaSeed);
+	}
+
+	/**
+	 * Save a calibration checkpoint. Replicas restart from a reset world, so
+	 * the calibration state between replicas is all there is to save.
+	 *
+	 * @param calibrator       Calibrator
+	 * @param run              Next simulation run
+	 * @param timeSeriesWriter Time series writer (null if disabled)
+	 */
+	private void saveCheckpoint(Calibrator calibrator, int run,
+			TimeSeriesWriter timeSeriesWriter) {
+		try (CheckpointWriter writer = new CheckpointWriter(
+				SourcePaths.CALIBRATION_CHECKPOINT)) {
+			writer.writeString(getCheckpointFingerprint());
+			writer.writeLong(this.seed);
+			writer.writeInt(run);
+			writer.writeLong((timeSeriesWriter == null) ? -1
+					: timeSeriesWriter.sync());
+			Map<String, Double> tunableParameters = new TreeMap<>(
+					this.parametersAdapter.getTunableParameters());
+			writer.writeInt(tunableParameters.size());
+			for (Map.Entry<String, Double> parameter : tunableParameters
+					.entrySet()) {
+				writer.writeString(parameter.getKey());
+				writer.writeDouble(parameter.getValue());
+			}
+			calibrator.writeState(writer);
+			writer.commit();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+	/**
+	 * Restore the calibration checkpoint, if any. Checkpoints saved with a
+	 * different configuration are refused.
+	 *
+	 * @param calibrator Initialized calibrator
+	 * @return Next simulation run
+	 */
+	private int restoreCheckpoint(Calibrator calibrator) {
+		if (this.checkpointInterval <= 0
+				|| !new File(SourcePaths.CALIBRATION_CHECKPOINT).exists()) {
+			return 0;
+		}
+		try (CheckpointReader reader = new CheckpointReader(
+				SourcePaths.CALIBRATION_CHECKPOINT)) {
+			if (!reader.readString().equals(getCheckpointFingerprint())) {
+				throw new IllegalStateException(String.format(
+						"Checkpoint %s belongs to another configuration",
+						SourcePaths.CALIBRATION_CHECKPOINT));
+			}
+			this.seed = reader.readLong();
+			int run = reader.readInt();
+			this.checkpointRecords = reader.readLong();
+			int parameters = reader.readInt();
+			for (int i = 0; i < parameters; i++) {
+				String parameterId = reader.readString();
+				this.parametersAdapter.setParameterValue(parameterId,
+						reader.readDouble());
+			}
+			calibrator.readState(reader);
+			return run;
+		} catch (IOException ioe) {
+			throw new IllegalStateException("Unable to restore checkpoint",
+					ioe);
+		}
+	}
+
+	/**
+	 * Delete the calibration checkpoint once the calibration is complete
+	 */
+	private void deleteCheckpoint() {
+		if (this.checkpointInterval <= 0) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(Paths.get(SourcePaths.CALIBRATION_CHECKPOINT));
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+	/**
+	 * Get fingerprint of the configuration a checkpoint belongs to
+	 */
+	private String getCheckpointFingerprint() {
+		StringBuilder content = new StringBuilder();
+		content.append("ticksPerRun=").append(Calibrator.TICKS_PER_RUN)
+				.append('\n');
+		content.append("exposureSweep=").append(Citizen.EXPOSURE_SWEEP_FLAG)
+				.append('\n');
+		content.append("movementSweep=").append(Citizen.MOVEMENT_SWEEP_FLAG)
+				.append('\n');
+		content.append("timeSeriesInterval=").append(this.timeSeriesInterval)
+				.append('\n');
+		EvaluationCache.appendParameters(content, "fixed.",
+				this.fixedParameters);
+		for (CalibrationParameter parameter : new TreeMap<>(
+				this.calibrationSetup).values()) {
+			content.append("calibration.").append(parameter.getParameterId())
+					.append('=').append(parameter.getTolerance()).append(',')
+					.append(parameter.getLowerBound()).append(',')
+					.append(parameter.getUpperBound()).append('\n');
+		}
+		return EvaluationCache.digest(content.toString());
+	}
+
+	/**
+	 * Open the time series writer (null if disabled), resuming after the
+	 * records at the restored checkpoint
+	 */
+	private TimeSeriesWriter openTimeSeriesWriter() {
+		if (this.timeSeriesInterval <= 0) {
+			return null;
+		}
+		try {
+			return new TimeSeriesWriter(SourcePaths.TIME_SERIES,
+					this.checkpointRecords);
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Initialize base random seed, seeding the shared random stream when
+	 * the seed is given
+	 *
+	 * @param parameters Model parameters
+	 */
+	private static long initSeed(Map<String, Double> parameters) {
+		Double seed = parameters.get(RANDOM_SEED_PARAM_ID);
+		if (seed != null) {
+			RandomHelper.setSeed(seed.intValue());
+			return seed.longValue();
+		}
+		return new SplittableRandom().nextLong();
+	}
+
+	/**
+	 * Create citizens
+	 */
+	private List<Citizen> createCitizens() {
+		int susceptibleCount = this.parametersAdapter.getSusceptibleCount();
+		int exposedCount = this.parametersAdapter.getExposedCount();
+		this.population = new Population(exposedCount + susceptibleCount);
+		List<Citizen> citizens = new ArrayList<>();
+		for (int i = 0; i < exposedCount; i++) {
+			Citizen citizen = new Citizen(this, citizens.size(), true);
+			citizens.add(citizen);
+		}
+		for (int i = 0; i < susceptibleCount; i++) {
+			Citizen citizen = new Citizen(this, citizens.size(), false);
+			citizens.add(citizen);
+		}
+		return citizens;
+	}
+
+}
@@ -0,0 +1,214 @@
+package simulation;
+
+import model.Randomizer;
+
+public final class ParameterSnapshot {
+
+	/**
+	 * Largest tabulated number of infected people around (larger numbers
+	 * are calculated on demand)
+	 */
+	public static final int MAX_TABULATED_INFECTED = 64;
+
+	/**
+	 * Exposed count
+	 */
+	private final int exposedCount;
+
+	/**
+	 * Susceptible count
+	 */
+	private final int susceptibleCount;
+
+	/**
+	 * Immunodepression share
+	 */
+	private final double immunodepressionShare;
+
+	/**
+	 * Alcohol drinkers share
+	 */
+	private final double alcoholDrinkersShare;
+
+	/**
+	 * Smokers share
+	 */
+	private final double smokersShare;
+
+	/**
+	 * Average room volume
+	 */
+	private final double averageRoomVolume;
+
+	/**
+	 * Average room ventilation rate
+	 */
+	private final double averageRoomVentilationRate;
+
+	/**
+	 * Mean diagnosis delay
+	 */
+	private final double meanDiagnosisDelay;
+
+	/**
+	 * Treatment dropout rate
+	 */
+	private final double treatmentDropoutRate;
+
+	/**
+	 * Infection probability
+	 */
+	private final double infectionProbability;
+
+	/**
+	 * Exposure probabilities by infected people around
+	 */
+	private final double[] exposureProbabilities;
+
+	/**
+	 * Create a new parameter snapshot
+	 *
+	 * @param exposedCount               Exposed count
+	 * @param susceptibleCount           Susceptible count
+	 * @param immunodepressionShare      Immunodepression share
+	 * @param alcoholDrinkersShare       Alcohol drinkers share
+	 * @param smokersShare               Smokers share
+	 * @param averageRoomVolume          Average room volume
+	 * @param averageRoomVentilationRate Average room ventilation rate
+	 * @param meanDiagnosisDelay         Mean diagnosis delay
+	 * @param treatmentDropoutRate       Treatment dropout rate
+	 * @param infectionProbability       Infection probability
+	 * @param previous                   Previous snapshot, whose exposure
+	 *                                   probabilities are reused if its
+	 *                                   room matches (null if none)
+	 */
+	public ParameterSnapshot(int exposedCount, int susceptibleCount,
+			double immunodepressionShare, double alcoholDrinkersShare,
+			double smokersShare, double averageRoomVolume,
+			double averageRoomVentilationRate, double meanDiagnosisDelay,
+			double treatmentDropoutRate, double infectionProbability,
+			ParameterSnapshot previous) {
+		this.exposedCount = exposedCount;
+		this.susceptibleCount = susceptibleCount;
+		this.immunodepressionShare = immunodepressionShare;
+		this.alcoholDrinkersShare = alcoholDrinkersShare;
+		this.smokersShare = smokersShare;
+		this.averageRoomVolume = averageRoomVolume;
+		this.averageRoomVentilationRate = averageRoomVentilationRate;
+		this.meanDiagnosisDelay = meanDiagnosisDelay;
+		this.treatmentDropoutRate = treatmentDropoutRate;
+		this.infectionProbability = infectionProbability;
+		if (previous != null && previous.hasSameRoom(this)) {
+			this.exposureProbabilities = previous.exposureProbabilities;
+		} else {
+			this.exposureProbabilities = new double[MAX_TABULATED_INFECTED + 1];
+			for (int i = 0; i < this.exposureProbabilities.length; i++) {
+				this.exposureProbabilities[i] = calculateExposureProbability(i);
+			}
+		}
+	}
+
+	/**
+	 * Get exposed count
+	 */
+	public int getExposedCount() {
+		return this.exposedCount;
+	}
+
+	/**
+	 * Get susceptible count
+	 */
+	public int getSusceptibleCount() {
+		return this.susceptibleCount;
+	}
+
+	/**
+	 * Get immunodepression share
+	 */
+	public double getImmunodepressionShare() {
+		return this.immunodepressionShare;
+	}
+
+	/**
+	 * Get alcohol drinkers share
+	 */
+	public double getAlcoholDrinkersShare() {
+		return this.alcoholDrinkersShare;
+	}
+
+	/**
+	 * Get smokers share
+	 */
+	public double getSmokersShare() {
+		return this.smokersShare;
+	}
+
+	/**
+	 * Get average room volume
+	 */
+	public double getAverageRoomVolume() {
+		return this.averageRoomVolume;
+	}
+
+	/**
+	 * Get average room ventilation rate
+	 */
+	public double getAverageRoomVentilationRate() {
+		return this.averageRoomVentilationRate;
+	}
+
+	/**
+	 * Get mean diagnosis delay
+	 */
+	public double getMeanDiagnosisDelay() {
+		return this.meanDiagnosisDelay;
+	}
+
+	/**
+	 * Get treatment dropout rate
+	 */
+	public double getTreatmentDropoutRate() {
+		return this.treatmentDropoutRate;
+	}
+
+	/**
+	 * Get infection probability
+	 */
+	public double getInfectionProbability() {
+		return this.infectionProbability;
+	}
+
+	/**
+	 * Get exposure probability of a single particle expelling event
+	 *
+	 * @param infectedPeople Infected people around
+	 */
+	public double getExposureProbability(int infectedPeople) {
+		if (infectedPeople < this.exposureProbabilities.length) {
+			return this.exposureProbabilities[infectedPeople];
+		}
+		return calculateExposureProbability(infectedPeople);
+	}
+
+	/**
+	 * Has the same room as another snapshot?
+	 *
+	 * @param other Other snapshot
+	 */
+	private boolean hasSameRoom(ParameterSnapshot other) {
+		return this.averageRoomVolume == other.averageRoomVolume
+				&& this.averageRoomVentilationRate == other.averageRoomVentilationRate;
+	}
+
+	/**
+	 * Calculate exposure probability of a single particle expelling event
+	 *
+	 * @param infectedPeople Infected people around
+	 */
+	private double calculateExposureProbability(int infectedPeople) {
+		double phi = infectedPeople * Randomizer.MEAN_QUANTA_PRODUCTION;
+		return (Randomizer.MEAN_PULMONARY_VENTILATION_RATE * phi)
+				/ (this.averageRoomVolume * this.averageRoomVentilationRate);
+	}
+
+}
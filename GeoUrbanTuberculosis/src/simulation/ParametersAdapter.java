@@ -11,12 +11,12 @@ public class ParametersAdapter {
 	/**
 	 * Exposed count parameter id
 	 */
-	private static final String EXPOSED_COUNT_PARAM_ID = "exposedCount";
+	static final String EXPOSED_COUNT_PARAM_ID = "exposedCount";
 
 	/**
 	 * Susceptible count parameter id
 	 */
-	private static final String SUSCEPTIBLE_COUNT_PARAM_ID = "susceptibleCount";
+	static final String SUSCEPTIBLE_COUNT_PARAM_ID = "susceptibleCount";
 
 	/**
 	 * Alcohol drinkers share parameter id
@@ -88,11 +88,34 @@ public class ParametersAdapter {
 	 */
 	private Map<String, Double> tunableParameters;
 
+	/**
+	 * Fixed parameters (headless runs only)
+	 */
+	private Map<String, Double> fixedParameters;
+
+	/**
+	 * Model parameters' snapshot
+	 */
+	private ParameterSnapshot snapshot;
+
 	/**
 	 * Create a new parameters adapter
 	 */
 	public ParametersAdapter() {
+		this(null);
+	}
+
+	/**
+	 * Create a new parameters adapter backed by fixed parameters instead of
+	 * the run environment
+	 * 
+	 * @param fixedParameters Fixed parameters
+	 */
+	public ParametersAdapter(Map<String, Double> fixedParameters) {
 		this.tunableParameters = new HashMap<>();
+		this.fixedParameters = (fixedParameters == null) ? null
+				: new HashMap<>(fixedParameters);
+		this.snapshot = createSnapshot();
 	}
 
 	/**
@@ -100,13 +123,12 @@ public class ParametersAdapter {
 	 */
 	@ScheduledMethod(start = 0, priority = 4)
 	public void init() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		double averageRoomVentilationRate = simParams
-				.getDouble(AVERAGE_ROOM_VENTILATION_RATE_PARAM_ID);
+		double averageRoomVentilationRate = getDoubleParameter(
+				AVERAGE_ROOM_VENTILATION_RATE_PARAM_ID);
 		setParameterValue(AVERAGE_ROOM_VENTILATION_RATE_PARAM_ID,
 				averageRoomVentilationRate);
-		double infectionProbability = simParams
-				.getDouble(INFECTION_PROBABILITY_PARAM_ID);
+		double infectionProbability = getDoubleParameter(
+				INFECTION_PROBABILITY_PARAM_ID);
 		setParameterValue(INFECTION_PROBABILITY_PARAM_ID, infectionProbability);
 	}
 
@@ -114,119 +136,112 @@ public class ParametersAdapter {
 	 * Get exposed count
 	 */
 	public int getExposedCount() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getInteger(EXPOSED_COUNT_PARAM_ID);
+		return this.snapshot.getExposedCount();
 	}
 
 	/**
 	 * Get susceptible count
 	 */
 	public int getSusceptibleCount() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getInteger(SUSCEPTIBLE_COUNT_PARAM_ID);
+		return this.snapshot.getSusceptibleCount();
 	}
 
 	/**
 	 * Get immunodepression share
 	 */
 	public double getImmunodepressionShare() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(IMMUNODEPRESSION_SHARE_PARAM_ID);
+		return this.snapshot.getImmunodepressionShare();
 	}
 
 	/**
 	 * Get alcohol drinkers share
 	 */
 	public double getAlcoholDrinkersShare() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(ALCOHOL_DRINKERS_SHARE_PARAM_ID);
+		return this.snapshot.getAlcoholDrinkersShare();
 	}
 
 	/**
 	 * Get smokers share
 	 */
 	public double getSmokersShare() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(SMOKERS_SHARE_PARAM_ID);
+		return this.snapshot.getSmokersShare();
 	}
 
 	/**
 	 * Get average room volume
 	 */
 	public double getAverageRoomVolume() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(AVERAGE_ROOM_VOLUME_PARAM_ID);
+		return this.snapshot.getAverageRoomVolume();
 	}
 
 	/**
 	 * Get incidence rate goal
 	 */
 	public double getIncidenceRateGoal() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(INCIDENCE_RATE_GOAL_PARAM_ID);
+		return getDoubleParameter(INCIDENCE_RATE_GOAL_PARAM_ID);
 	}
 
 	/**
 	 * Get exposure rate goal
 	 */
 	public double getExposureRateGoal() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(EXPOSURE_RATE_GOAL_PARAM_ID);
+		return getDoubleParameter(EXPOSURE_RATE_GOAL_PARAM_ID);
 	}
 
 	/**
 	 * Get mean diagnosis delay
 	 */
 	public double getMeanDiagnosisDelay() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(MEAN_DIAGNOSIS_DELAY_PARAM_ID);
+		return this.snapshot.getMeanDiagnosisDelay();
 	}
 
 	/**
 	 * Get epsilon
 	 */
 	public double getEpsilon() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(EPSILON_PARAM_ID);
+		return getDoubleParameter(EPSILON_PARAM_ID);
 	}
 
 	/**
 	 * Get learning rate
 	 */
 	public double getLearningRate() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(LEARNING_RATE_PARAM_ID);
+		return getDoubleParameter(LEARNING_RATE_PARAM_ID);
 	}
 
 	/**
 	 * Get discount factor
 	 */
 	public double getDiscountFactor() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(DISCOUNT_FACTOR_PARAM_ID);
+		return getDoubleParameter(DISCOUNT_FACTOR_PARAM_ID);
 	}
 
 	/**
 	 * Get treatment dropout rate
 	 */
 	public double getTreatmentDropoutRate() {
-		Parameters simParams = RunEnvironment.getInstance().getParameters();
-		return simParams.getDouble(TREATMENT_DROPOUT_RATE_PARAM_ID);
+		return this.snapshot.getTreatmentDropoutRate();
 	}
 
 	/**
 	 * Get infection probability
 	 */
 	public double getInfectionProbability() {
-		return this.tunableParameters.get(INFECTION_PROBABILITY_PARAM_ID);
+		return this.snapshot.getInfectionProbability();
 	}
 
 	/**
 	 * Get average room ventilation rate
 	 */
 	public double getAverageRoomVentilationRate() {
-		return this.tunableParameters
-				.get(AVERAGE_ROOM_VENTILATION_RATE_PARAM_ID);
+		return this.snapshot.getAverageRoomVentilationRate();
+	}
+
+	/**
+	 * Get model parameters' snapshot
+	 */
+	public ParameterSnapshot getSnapshot() {
+		return this.snapshot;
 	}
 
 	/**
@@ -243,7 +258,87 @@ public class ParametersAdapter {
 	 * @param parameterValue Parameter value
 	 */
 	public void setParameterValue(String parameterId, double parameterValue) {
-		this.tunableParameters.put(parameterId, parameterValue);
+		Double previousValue = this.tunableParameters.put(parameterId,
+				parameterValue);
+		if (previousValue == null || previousValue != parameterValue) {
+			this.snapshot = createSnapshot();
+		}
+	}
+
+	/**
+	 * Set fixed parameter value (headless runs only)
+	 * 
+	 * @param parameterId    Parameter id
+	 * @param parameterValue Parameter value
+	 */
+	public void setFixedParameterValue(String parameterId,
+			double parameterValue) {
+		if (this.fixedParameters == null) {
+			throw new IllegalStateException(
+					"Fixed parameters are read from the run environment");
+		}
+		Double previousValue = this.fixedParameters.put(parameterId,
+				parameterValue);
+		if (previousValue == null || previousValue != parameterValue) {
+			this.snapshot = createSnapshot();
+		}
+	}
+
+	/**
+	 * Create model parameters' snapshot
+	 */
+	private ParameterSnapshot createSnapshot() {
+		return new ParameterSnapshot(
+				getIntegerParameter(EXPOSED_COUNT_PARAM_ID),
+				getIntegerParameter(SUSCEPTIBLE_COUNT_PARAM_ID),
+				getDoubleParameter(IMMUNODEPRESSION_SHARE_PARAM_ID),
+				getDoubleParameter(ALCOHOL_DRINKERS_SHARE_PARAM_ID),
+				getDoubleParameter(SMOKERS_SHARE_PARAM_ID),
+				getDoubleParameter(AVERAGE_ROOM_VOLUME_PARAM_ID),
+				getTunableParameter(AVERAGE_ROOM_VENTILATION_RATE_PARAM_ID),
+				getDoubleParameter(MEAN_DIAGNOSIS_DELAY_PARAM_ID),
+				getDoubleParameter(TREATMENT_DROPOUT_RATE_PARAM_ID),
+				getTunableParameter(INFECTION_PROBABILITY_PARAM_ID),
+				this.snapshot);
+	}
+
+	/**
+	 * Get tunable parameter, falling back to its initial value
+	 * 
+	 * @param parameterId Parameter id
+	 */
+	private double getTunableParameter(String parameterId) {
+		Double value = this.tunableParameters.get(parameterId);
+		if (value != null) {
+			return value;
+		}
+		return getDoubleParameter(parameterId);
+	}
+
+	/**
+	 * Get double parameter
+	 * 
+	 * @param parameterId Parameter id
+	 */
+	private double getDoubleParameter(String parameterId) {
+		if (this.fixedParameters != null) {
+			return this.fixedParameters.get(parameterId);
+		}
+		Parameters simParams = RunEnvironment.getInstance().getParameters();
+		return simParams.getDouble(parameterId);
+	}
+
+	/**
+	 * Get integer parameter
+	 * 
+	 * @param parameterId Parameter id
+	 */
+	private int getIntegerParameter(String parameterId) {
+		if (this.fixedParameters != null) {
+			return this.fixedParameters.get(parameterId).intValue();
+		}
+		Parameters simParams = RunEnvironment.getInstance().getParameters();
+		return simParams.getInteger(parameterId);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package simulation;
+
+import java.util.List;
+import model.Citizen;
+import model.Population;
+import repast.simphony.space.continuous.ContinuousSpace;
+import repast.simphony.space.grid.Grid;
+
+public class ProjectionAdapter {
+
+	/**
+	 * Space projection
+	 */
+	private ContinuousSpace<Object> space;
+
+	/**
+	 * Grid projection
+	 */
+	private Grid<Object> grid;
+
+	/**
+	 * Population store
+	 */
+	private Population population;
+
+	/**
+	 * Citizens by id
+	 */
+	private List<Citizen> citizens;
+
+	/**
+	 * Create a new projection adapter
+	 *
+	 * @param space      Space projection
+	 * @param grid       Grid projection
+	 * @param population Population store
+	 * @param citizens   Citizens by id
+	 */
+	public ProjectionAdapter(ContinuousSpace<Object> space, Grid<Object> grid,
+			Population population, List<Citizen> citizens) {
+		this.space = space;
+		this.grid = grid;
+		this.population = population;
+		this.citizens = citizens;
+	}
+
+	/**
+	 * Copy the citizens' locations to the Repast projections
+	 */
+	public void sync() {
+		Population population = this.population;
+		for (Citizen citizen : this.citizens) {
+			int id = citizen.getId();
+			double x = population.getX(id);
+			double y = population.getY(id);
+			this.space.moveTo(citizen, x, y);
+			this.grid.moveTo(citizen, (int) x, (int) y);
+		}
+	}
+
+}
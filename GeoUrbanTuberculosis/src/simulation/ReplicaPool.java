@@ -0,0 +1,122 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import calibration.EvaluationCache;
+import output.TimeSeriesWriter;
+import repast.simphony.util.collections.Pair;
+
+public class ReplicaPool {
+
+	/**
+	 * Worker worlds
+	 */
+	private List<HeadlessSimulation> worlds;
+
+	/**
+	 * Worker pool
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Create a new replica pool
+	 *
+	 * @param parameters       Model parameters
+	 * @param seed             Base random seed
+	 * @param workers          Number of workers
+	 * @param evaluationCache  Evaluation cache (null if disabled)
+	 * @param timeSeriesWriter Time series writer (null if disabled)
+	 */
+	public ReplicaPool(Map<String, Double> parameters, long seed, int workers,
+			EvaluationCache evaluationCache,
+			TimeSeriesWriter timeSeriesWriter) {
+		this.worlds = new ArrayList<>();
+		for (int i = 0; i < workers; i++) {
+			HeadlessSimulation world = new HeadlessSimulation(parameters, seed);
+			world.setEvaluationCache(evaluationCache);
+			world.setTimeSeriesWriter(timeSeriesWriter);
+			this.worlds.add(world);
+		}
+		this.executor = Executors.newFixedThreadPool(workers);
+	}
+
+	/**
+	 * Run replicas on independent worlds
+	 *
+	 * @param tunableParameters Tunable parameters
+	 * @param firstRun          First replica's simulation run
+	 * @param replicas          Number of replicas
+	 */
+	public List<Pair<Integer, Integer>> runReplicas(
+			Map<String, Double> tunableParameters, int firstRun,
+			int replicas) {
+		List<Pair<Integer, Integer>> outputs = new ArrayList<>(
+				Collections.nCopies(replicas, null));
+		AtomicInteger nextReplica = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (HeadlessSimulation world : this.worlds) {
+			futures.add(this.executor.submit(() -> {
+				ParametersAdapter parametersAdapter = world
+						.getParametersAdapter();
+				for (Map.Entry<String, Double> parameter : tunableParameters
+						.entrySet()) {
+					parametersAdapter.setParameterValue(parameter.getKey(),
+							parameter.getValue());
+				}
+				int replica;
+				while ((replica = nextReplica.getAndIncrement()) < replicas) {
+					outputs.set(replica, world.evaluateReplica(firstRun + replica));
+				}
+			}));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running replicas",
+					ie);
+		} catch (ExecutionException ee) {
+			throw new IllegalStateException("Replica failed", ee.getCause());
+		}
+		return outputs;
+	}
+
+	/**
+	 * Hold the workers' time series records until they are published, for
+	 * replicas that may be discarded
+	 */
+	public void holdTimeSeries() {
+		for (HeadlessSimulation world : this.worlds) {
+			world.holdTimeSeries();
+		}
+	}
+
+	/**
+	 * Publish the workers' held time series records of runs before a given
+	 * run and drop the rest
+	 *
+	 * @param endRun First run whose records are dropped
+	 */
+	public void publishTimeSeries(int endRun) {
+		for (HeadlessSimulation world : this.worlds) {
+			world.publishTimeSeries(endRun);
+		}
+	}
+
+	/**
+	 * Shut down workers
+	 */
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+}
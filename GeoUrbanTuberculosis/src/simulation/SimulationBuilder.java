@@ -7,7 +7,13 @@ import calibration.CalibrationParameter;
 import calibration.Calibrator;
 import config.SourcePaths;
 import datasource.Reader;
+import model.CellIndex;
 import model.Citizen;
+import model.CitizenEvent;
+import model.ExposureSweep;
+import model.MovementSweep;
+import model.Population;
+import model.RandomStreams;
 import output.OutputManager;
 import repast.simphony.context.Context;
 import repast.simphony.context.space.continuous.ContinuousSpaceFactory;
@@ -15,6 +21,12 @@ import repast.simphony.context.space.continuous.ContinuousSpaceFactoryFinder;
 import repast.simphony.context.space.grid.GridFactory;
 import repast.simphony.context.space.grid.GridFactoryFinder;
 import repast.simphony.dataLoader.ContextBuilder;
+import repast.simphony.engine.environment.RunEnvironment;
+import repast.simphony.engine.schedule.ISchedulableAction;
+import repast.simphony.engine.schedule.ISchedule;
+import repast.simphony.engine.schedule.ScheduleParameters;
+import repast.simphony.essentials.RepastEssentials;
+import repast.simphony.parameter.Parameters;
 import repast.simphony.random.RandomHelper;
 import repast.simphony.space.continuous.ContinuousSpace;
 import repast.simphony.space.continuous.SimpleCartesianAdder;
@@ -23,18 +35,28 @@ import repast.simphony.space.grid.GridBuilderParameters;
 import repast.simphony.space.grid.SimpleGridAdder;
 import repast.simphony.space.grid.WrapAroundBorders;
 
-public class SimulationBuilder implements ContextBuilder<Object> {
+public class SimulationBuilder implements ContextBuilder<Object>, World {
 
 	/**
-	 * City's length
+	 * Default city's length
 	 */
 	public static final int CITY_LENGTH = 10;
 
 	/**
-	 * City's width
+	 * Default city's width
 	 */
 	public static final int CITY_WIDTH = 10;
 
+	/**
+	 * City's length parameter id
+	 */
+	private static final String CITY_LENGTH_PARAM_ID = "cityLength";
+
+	/**
+	 * City's width parameter id
+	 */
+	private static final String CITY_WIDTH_PARAM_ID = "cityWidth";
+
 	/**
 	 * Space projection id
 	 */
@@ -46,12 +68,12 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 	public static final String GRID_PROJECTION_ID = "grid";
 
 	/**
-	 * Reference to space projection
+	 * Reference to space projection (null in batch runs)
 	 */
 	public ContinuousSpace<Object> space;
 
 	/**
-	 * Reference to grid projection
+	 * Reference to grid projection (null in batch runs)
 	 */
 	public Grid<Object> grid;
 
@@ -70,11 +92,86 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 	 */
 	public OutputManager outputManager;
 
+	/**
+	 * Population store
+	 */
+	public Population population;
+
+	/**
+	 * Cell index
+	 */
+	public CellIndex cellIndex;
+
+	/**
+	 * City grid
+	 */
+	private CityGrid cityGrid;
+
+	/**
+	 * Movement sweep (null when citizens step on their own)
+	 */
+	private MovementSweep movementSweep;
+
+	/**
+	 * Projection adapter (null in batch runs)
+	 */
+	private ProjectionAdapter projectionAdapter;
+
+	/**
+	 * City's length
+	 */
+	private int cityLength;
+
+	/**
+	 * City's width
+	 */
+	private int cityWidth;
+
+	/**
+	 * Base random seed
+	 */
+	private long seed;
+
+	/**
+	 * Current simulation run
+	 */
+	private int run;
+
+	/**
+	 * Citizens by id
+	 */
+	private List<Citizen> citizens;
+
 	/**
 	 * Reference to calibrator
 	 */
 	private Calibrator calibrator;
 
+	/**
+	 * Event generations (cancelled events are dropped when they come up)
+	 */
+	private EventGenerations generations;
+
+	/**
+	 * Timing wheel for daily recurring events
+	 */
+	private TimingWheel timingWheel;
+
+	/**
+	 * Scheduled action firing the timing wheel's next events
+	 */
+	private ISchedulableAction wheelAction;
+
+	/**
+	 * Tick of the scheduled wheel action
+	 */
+	private double wheelActionTick;
+
+	/**
+	 * Calendar holding one-time events past the next day
+	 */
+	private EventCalendar eventCalendar;
+
 	/**
 	 * Build simulation
 	 * 
@@ -83,10 +180,18 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 	@Override
 	public Context<Object> build(Context<Object> context) {
 		context.setId("GeoUrbanTuberculosis");
-		// Create continuous space projection
-		this.space = createContinuousSpaceProjection(context);
-		// Create grid projection
-		this.grid = createGridProjection(context);
+		this.timingWheel = new TimingWheel();
+		this.eventCalendar = new EventCalendar();
+		// Read city's size
+		Parameters simParams = RunEnvironment.getInstance().getParameters();
+		this.cityLength = simParams.getInteger(CITY_LENGTH_PARAM_ID);
+		this.cityWidth = simParams.getInteger(CITY_WIDTH_PARAM_ID);
+		// Create Repast projections only for visualization
+		boolean visualized = !RunEnvironment.getInstance().isBatch();
+		if (visualized) {
+			this.space = createContinuousSpaceProjection(context);
+			this.grid = createGridProjection(context);
+		}
 		// Read calibration parameters
 		this.calibrationSetup = Reader
 				.readCalibrationSetup(SourcePaths.CALIBRATION_SETUP_DATABASE);
@@ -94,25 +199,382 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 		this.parametersAdapter = new ParametersAdapter();
 		context.add(this.parametersAdapter);
 		// Initialize citizens
-		List<Citizen> citizens = createCitizens();
-		for (Citizen citizen : citizens) {
+		this.citizens = createCitizens();
+		this.generations = new EventGenerations(this.citizens.size());
+		for (Citizen citizen : this.citizens) {
 			context.add(citizen);
 		}
+		// Initialize movement sweep
+		if (Citizen.MOVEMENT_SWEEP_FLAG) {
+			this.movementSweep = new MovementSweep(this);
+			context.add(this.movementSweep);
+		}
+		// Seed citizens' random streams
+		this.seed = RandomHelper.getSeed();
+		this.run = 0;
+		seedCitizens();
+		// Initialize cell index
+		this.cellIndex = new CellIndex(this.cityLength, this.cityWidth,
+				this.population);
+		this.cityGrid = new CityGrid(this.cityLength, this.cityWidth,
+				this.population, this.cellIndex);
+		// Initialize exposure sweep
+		if (Citizen.EXPOSURE_SWEEP_FLAG) {
+			context.add(new ExposureSweep(this));
+		}
 		// Initialize calibrator
 		this.calibrator = new Calibrator(this);
 		context.add(this.calibrator);
 		// Initialize output manager
-		this.outputManager = new OutputManager();
+		this.outputManager = new OutputManager(this.population);
 		context.add(this.outputManager);
+		// Schedule bulk citizen resets at the start of every run
+		ISchedule schedule = RunEnvironment.getInstance().getCurrentSchedule();
+		double runInterval = Calibrator.TICKS_PER_RUN
+				+ Calibrator.TICKS_BETWEEN_RUNS;
+		schedule.schedule(ScheduleParameters.createRepeating(0, runInterval, 1),
+				this, "resetCitizens");
+		schedule.schedule(ScheduleParameters.createRepeating(1, runInterval),
+				this, "startCitizens");
+		// Move the next day's calendar events to the schedule once a day
+		schedule.schedule(ScheduleParameters.createRepeating(0,
+				EventCalendar.BUCKET_WIDTH), this, "promoteEvents");
+		// Mirror locations to the projections once per tick, after moves
+		if (visualized) {
+			this.projectionAdapter = new ProjectionAdapter(this.space,
+					this.grid, this.population, this.citizens);
+			schedule.schedule(ScheduleParameters.createRepeating(1, 1,
+					ScheduleParameters.LAST_PRIORITY), this.projectionAdapter,
+					"sync");
+		}
 		return context;
 	}
 
+	/**
+	 * Reset citizens in bulk and redraw their attributes
+	 */
+	public void resetCitizens() {
+		unscheduleAllEvents();
+		this.cellIndex.clear();
+		this.population.clearFlags(Population.NOTIFIED_EXPOSURE
+				| Population.NOTIFIED_INFECTION | Population.WALKING);
+		for (Citizen citizen : this.citizens) {
+			citizen.init();
+		}
+	}
+
+	/**
+	 * Start citizens and place them at their households
+	 */
+	public void startCitizens() {
+		for (Citizen citizen : this.citizens) {
+			citizen.start();
+		}
+		this.cityGrid.placeAtHouseholds();
+	}
+
+	/**
+	 * Get parameters adapter
+	 */
+	@Override
+	public ParametersAdapter getParametersAdapter() {
+		return this.parametersAdapter;
+	}
+
+	/**
+	 * Get population store
+	 */
+	@Override
+	public Population getPopulation() {
+		return this.population;
+	}
+
+	/**
+	 * Get citizen
+	 *
+	 * @param id Citizen id
+	 */
+	@Override
+	public Citizen getCitizen(int id) {
+		return this.citizens.get(id);
+	}
+
+	/**
+	 * Get city's length
+	 */
+	@Override
+	public int getCityLength() {
+		return this.cityLength;
+	}
+
+	/**
+	 * Get city's width
+	 */
+	@Override
+	public int getCityWidth() {
+		return this.cityWidth;
+	}
+
+	/**
+	 * Get cell index
+	 */
+	@Override
+	public CellIndex getCellIndex() {
+		return this.cellIndex;
+	}
+
+	/**
+	 * Get output manager
+	 */
+	@Override
+	public OutputManager getOutputManager() {
+		return this.outputManager;
+	}
+
+	/**
+	 * Get calibration setup
+	 */
+	@Override
+	public Map<String, CalibrationParameter> getCalibrationSetup() {
+		return this.calibrationSetup;
+	}
+
 	/**
 	 * Reset simulation
 	 */
+	@Override
 	public void resetSimulation() {
 		this.outputManager.resetOutputs();
 		RandomHelper.init();
+		this.run++;
+		seedCitizens();
+	}
+
+	/**
+	 * Schedule one-time citizen event
+	 *
+	 * @param ticksToEvent Ticks to event
+	 * @param citizen      Citizen
+	 * @param event        Event
+	 */
+	@Override
+	public void scheduleOneTimeEvent(double ticksToEvent, Citizen citizen,
+			CitizenEvent event) {
+		int id = citizen.getId();
+		long token = this.generations.getToken(id, event.ordinal());
+		double tick = RepastEssentials.GetTickCount();
+		double time = tick + ticksToEvent;
+		if (EventCalendar.getDay(time) > EventCalendar.getDay(tick) + 1) {
+			this.eventCalendar.push(time, 0, id, event.ordinal(), 0, token);
+			return;
+		}
+		scheduleAction(time,
+				new CitizenAction(this, id, event.ordinal(), 0, token));
+	}
+
+	/**
+	 * Schedule recurring citizen event
+	 *
+	 * @param ticksToEvent Ticks to event
+	 * @param citizen      Citizen
+	 * @param tickInterval Tick interval
+	 * @param event        Event
+	 */
+	@Override
+	public void scheduleRecurringEvent(double ticksToEvent, Citizen citizen,
+			double tickInterval, CitizenEvent event) {
+		int id = citizen.getId();
+		long token = this.generations.getToken(id, event.ordinal());
+		double time = RepastEssentials.GetTickCount() + ticksToEvent;
+		if (tickInterval == TimingWheel.PERIOD) {
+			this.timingWheel.push(time, id, event.ordinal(), token);
+			scheduleWheelAction();
+			return;
+		}
+		scheduleAction(time, new CitizenAction(this, id, event.ordinal(),
+				tickInterval, token));
+	}
+
+	/**
+	 * Unschedule citizen event
+	 *
+	 * @param citizen Citizen
+	 * @param event   Event
+	 */
+	@Override
+	public void unscheduleEvent(Citizen citizen, CitizenEvent event) {
+		this.generations.cancel(citizen.getId(), event.ordinal());
+	}
+
+	/**
+	 * Unschedule all citizen events
+	 *
+	 * @param citizen Citizen
+	 */
+	@Override
+	public void unscheduleEvents(Citizen citizen) {
+		this.generations.cancelAll(citizen.getId());
+	}
+
+	/**
+	 * Fire a citizen action unless its event was cancelled, scheduling its
+	 * next occurrence first if it recurs
+	 *
+	 * @param action Citizen action
+	 */
+	public void fireAction(CitizenAction action) {
+		int id = action.getCitizen();
+		int event = action.getEvent();
+		if (!this.generations.isCurrent(action.getToken(), id, event)) {
+			return;
+		}
+		if (action.getInterval() > 0) {
+			scheduleAction(
+					RepastEssentials.GetTickCount() + action.getInterval(),
+					action);
+		}
+		CitizenEvent.fromOrdinal(event).fire(this.citizens.get(id));
+	}
+
+	/**
+	 * Fire the timing wheel's events due at the current tick
+	 */
+	public void fireDailyEvents() {
+		this.wheelAction = null;
+		TimingWheel wheel = this.timingWheel;
+		double tick = RepastEssentials.GetTickCount();
+		while (!wheel.isEmpty() && wheel.peekTime() <= tick) {
+			int id = wheel.peekCitizen();
+			int event = wheel.peekEvent();
+			long token = wheel.peekToken();
+			if (!this.generations.isCurrent(token, id, event)) {
+				wheel.discard();
+				continue;
+			}
+			wheel.poll();
+			CitizenEvent.fromOrdinal(event).fire(this.citizens.get(id));
+		}
+		scheduleWheelAction();
+	}
+
+	/**
+	 * Schedule the calendar's events for the next day
+	 */
+	public void promoteEvents() {
+		long day = EventCalendar.getDay(RepastEssentials.GetTickCount()) + 1;
+		this.eventCalendar.promote(day, this::schedulePromotedEvent);
+	}
+
+	/**
+	 * Move citizen by displacement
+	 *
+	 * @param citizen Citizen
+	 * @param x       Displacement along the x axis
+	 * @param y       Displacement along the y axis
+	 */
+	@Override
+	public void moveByDisplacement(Citizen citizen, double x, double y) {
+		this.cityGrid.moveByDisplacement(citizen, x, y);
+	}
+
+	/**
+	 * Move walking citizens by displacement
+	 *
+	 * @param displacements Displacements along the x and y axes,
+	 *                      interleaved by citizen id
+	 */
+	@Override
+	public void moveWalkers(double[] displacements) {
+		this.cityGrid.moveWalkers(displacements);
+	}
+
+	/**
+	 * Move citizen to location
+	 *
+	 * @param citizen Citizen
+	 * @param x       X coordinate
+	 * @param y       Y coordinate
+	 */
+	@Override
+	public void moveTo(Citizen citizen, double x, double y) {
+		this.cityGrid.moveTo(citizen, x, y);
+	}
+
+	/**
+	 * Unschedule every citizen event at once. Citizen actions left on the
+	 * schedule are dropped when they come up.
+	 */
+	private void unscheduleAllEvents() {
+		this.generations.cancelEverything();
+		if (this.wheelAction != null) {
+			ISchedule schedule = RunEnvironment.getInstance()
+					.getCurrentSchedule();
+			schedule.removeAction(this.wheelAction);
+			this.wheelAction = null;
+		}
+		this.timingWheel.clear(RepastEssentials.GetTickCount());
+		this.eventCalendar.clear();
+	}
+
+	/**
+	 * Schedule an event promoted from the calendar
+	 *
+	 * @param time     Time
+	 * @param sequence Sequence number
+	 * @param id       Citizen id
+	 * @param event    Event ordinal
+	 * @param interval Interval (zero for one-time events)
+	 * @param token    Cancellation token
+	 */
+	private void schedulePromotedEvent(double time, long sequence, int id,
+			int event, double interval, long token) {
+		scheduleAction(time,
+				new CitizenAction(this, id, event, interval, token));
+	}
+
+	/**
+	 * Schedule citizen action
+	 *
+	 * @param tick   Tick
+	 * @param action Citizen action
+	 */
+	private void scheduleAction(double tick, CitizenAction action) {
+		EventScheduler.getInstance().scheduleOneTimeEventAt(tick, action);
+	}
+
+	/**
+	 * Schedule the timing wheel's action at its next event, unless an
+	 * action is already scheduled no later than that
+	 */
+	private void scheduleWheelAction() {
+		if (this.timingWheel.isEmpty()) {
+			return;
+		}
+		double tick = this.timingWheel.peekTime();
+		if (this.wheelAction != null) {
+			if (this.wheelActionTick <= tick) {
+				return;
+			}
+			ISchedule schedule = RunEnvironment.getInstance()
+					.getCurrentSchedule();
+			schedule.removeAction(this.wheelAction);
+		}
+		this.wheelAction = EventScheduler.getInstance()
+				.scheduleOneTimeEventAt(tick, this, "fireDailyEvents");
+		this.wheelActionTick = tick;
+	}
+
+	/**
+	 * Seed citizens' random streams for the current simulation run
+	 */
+	private void seedCitizens() {
+		long replicaSeed = RandomStreams.getReplicaSeed(this.seed, this.run);
+		for (Citizen citizen : this.citizens) {
+			citizen.seedRandom(replicaSeed);
+		}
+		if (this.movementSweep != null) {
+			this.movementSweep.seedRandom(replicaSeed);
+		}
 	}
 
 	/**
@@ -127,7 +589,7 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 		return spaceFactory.createContinuousSpace(SPACE_PROJECTION_ID, context,
 				new SimpleCartesianAdder<Object>(),
 				new repast.simphony.space.continuous.WrapAroundBorders(),
-				CITY_LENGTH, CITY_WIDTH);
+				this.cityLength, this.cityWidth);
 	}
 
 	/**
@@ -139,8 +601,8 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 		GridFactory gridFactory = GridFactoryFinder.createGridFactory(null);
 		return gridFactory.createGrid(GRID_PROJECTION_ID, context,
 				new GridBuilderParameters<Object>(new WrapAroundBorders(),
-						new SimpleGridAdder<>(), true, CITY_LENGTH,
-						CITY_WIDTH));
+						new SimpleGridAdder<>(), true, this.cityLength,
+						this.cityWidth));
 	}
 
 	/**
@@ -149,13 +611,14 @@ public class SimulationBuilder implements ContextBuilder<Object> {
 	private List<Citizen> createCitizens() {
 		int susceptibleCount = this.parametersAdapter.getSusceptibleCount();
 		int exposedCount = this.parametersAdapter.getExposedCount();
+		this.population = new Population(exposedCount + susceptibleCount);
 		List<Citizen> citizens = new ArrayList<>();
 		for (int i = 0; i < exposedCount; i++) {
-			Citizen citizen = new Citizen(this, true);
+			Citizen citizen = new Citizen(this, citizens.size(), true);
 			citizens.add(citizen);
 		}
 		for (int i = 0; i < susceptibleCount; i++) {
-			Citizen citizen = new Citizen(this, false);
+			Citizen citizen = new Citizen(this, citizens.size(), false);
 			citizens.add(citizen);
 		}
 		return citizens;
@@ -0,0 +1,356 @@
+package simulation;
+
+import java.util.Arrays;
+import util.TickConverter;
+
+public class TimingWheel {
+
+	/**
+	 * Period of every event on the wheel (unit: hours)
+	 */
+	public static final int PERIOD = TickConverter.TICKS_PER_DAY;
+
+	/**
+	 * Slot width (unit: hours)
+	 */
+	private static final int SLOT_WIDTH = 1;
+
+	/**
+	 * Number of slots
+	 */
+	private static final int SLOTS = PERIOD / SLOT_WIDTH;
+
+	/**
+	 * Initial capacity
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Next event times by entry
+	 */
+	private double[] times;
+
+	/**
+	 * Event phases within the period by entry
+	 */
+	private double[] phases;
+
+	/**
+	 * Event citizens by entry
+	 */
+	private int[] citizens;
+
+	/**
+	 * Event types by entry
+	 */
+	private byte[] events;
+
+	/**
+	 * Event cancellation tokens by entry
+	 */
+	private long[] tokens;
+
+	/**
+	 * Entries by slot, a prefix sorted by phase (ties in insertion order)
+	 * followed by the entries pushed since the slot was last sorted
+	 */
+	private int[][] slots;
+
+	/**
+	 * Number of entries by slot
+	 */
+	private int[] slotSizes;
+
+	/**
+	 * Number of sorted entries by slot
+	 */
+	private int[] sortedSizes;
+
+	/**
+	 * Merge buffer
+	 */
+	private int[] scratch;
+
+	/**
+	 * Free entries
+	 */
+	private int[] freeEntries;
+
+	/**
+	 * Number of free entries
+	 */
+	private int freeCount;
+
+	/**
+	 * Number of allocated entries
+	 */
+	private int entryCount;
+
+	/**
+	 * Number of events on the wheel
+	 */
+	private int size;
+
+	/**
+	 * Cursor slot
+	 */
+	private int slot;
+
+	/**
+	 * Cursor position within the cursor slot
+	 */
+	private int position;
+
+	/**
+	 * Start time of the cursor slot's current lap
+	 */
+	private double slotStart;
+
+	/**
+	 * Create a new timing wheel
+	 */
+	public TimingWheel() {
+		this.times = new double[INITIAL_CAPACITY];
+		this.phases = new double[INITIAL_CAPACITY];
+		this.citizens = new int[INITIAL_CAPACITY];
+		this.events = new byte[INITIAL_CAPACITY];
+		this.tokens = new long[INITIAL_CAPACITY];
+		this.freeEntries = new int[INITIAL_CAPACITY];
+		this.slots = new int[SLOTS][];
+		for (int i = 0; i < SLOTS; i++) {
+			this.slots[i] = new int[16];
+		}
+		this.slotSizes = new int[SLOTS];
+		this.sortedSizes = new int[SLOTS];
+		this.scratch = new int[16];
+	}
+
+	/**
+	 * Push a recurring event with the wheel's period
+	 *
+	 * @param time    Time of the first occurrence
+	 * @param citizen Citizen id
+	 * @param event   Event ordinal
+	 * @param token   Cancellation token
+	 */
+	public void push(double time, int citizen, int event, long token) {
+		int entry = allocate();
+		double phase = time % PERIOD;
+		this.times[entry] = time;
+		this.phases[entry] = phase;
+		this.citizens[entry] = citizen;
+		this.events[entry] = (byte) event;
+		this.tokens[entry] = token;
+		this.size++;
+		// Rewind when the cursor already looked past the event's slot
+		if (time < this.slotStart) {
+			moveCursor(time);
+		}
+		int slot = (int) (phase / SLOT_WIDTH);
+		int slotSize = this.slotSizes[slot];
+		if (slotSize == this.slots[slot].length) {
+			this.slots[slot] = Arrays.copyOf(this.slots[slot], 2 * slotSize);
+		}
+		this.slots[slot][slotSize] = entry;
+		this.slotSizes[slot] = slotSize + 1;
+	}
+
+	/**
+	 * Is empty?
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Get size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Peek time of the next event
+	 */
+	public double peekTime() {
+		return this.times[seek()];
+	}
+
+	/**
+	 * Peek citizen of the next event
+	 */
+	public int peekCitizen() {
+		return this.citizens[seek()];
+	}
+
+	/**
+	 * Peek type of the next event
+	 */
+	public int peekEvent() {
+		return this.events[seek()];
+	}
+
+	/**
+	 * Peek cancellation token of the next event
+	 */
+	public long peekToken() {
+		return this.tokens[seek()];
+	}
+
+	/**
+	 * Move the next event to its next occurrence
+	 */
+	public void poll() {
+		int entry = seek();
+		this.times[entry] += PERIOD;
+		this.position++;
+	}
+
+	/**
+	 * Remove the next event for good
+	 */
+	public void discard() {
+		int entry = seek();
+		int[] entries = this.slots[this.slot];
+		int slotSize = this.slotSizes[this.slot];
+		System.arraycopy(entries, this.position + 1, entries, this.position,
+				slotSize - this.position - 1);
+		this.slotSizes[this.slot] = slotSize - 1;
+		this.sortedSizes[this.slot]--;
+		this.freeEntries[this.freeCount++] = entry;
+		this.size--;
+	}
+
+	/**
+	 * Remove all events and place the cursor at a given time
+	 *
+	 * @param time Time
+	 */
+	public void clear(double time) {
+		Arrays.fill(this.slotSizes, 0);
+		Arrays.fill(this.sortedSizes, 0);
+		this.freeCount = 0;
+		this.entryCount = 0;
+		this.size = 0;
+		moveCursor(time);
+	}
+
+	/**
+	 * Advance the cursor to the next event due in its slot's current lap
+	 * and get its entry. Events later in a slot than the current lap wait
+	 * for their own lap.
+	 */
+	private int seek() {
+		while (true) {
+			if (this.sortedSizes[this.slot] < this.slotSizes[this.slot]) {
+				sortSlot(this.slot);
+			}
+			if (this.position < this.slotSizes[this.slot]) {
+				int entry = this.slots[this.slot][this.position];
+				if (this.times[entry] < this.slotStart + PERIOD / 2.0) {
+					return entry;
+				}
+				this.position++;
+			} else {
+				this.slot = (this.slot + 1) % SLOTS;
+				this.slotStart += SLOT_WIDTH;
+				this.position = 0;
+			}
+		}
+	}
+
+	/**
+	 * Move the cursor to the start of the slot containing a given time
+	 *
+	 * @param time Time
+	 */
+	private void moveCursor(double time) {
+		this.slotStart = Math.floor(time / SLOT_WIDTH) * SLOT_WIDTH;
+		this.slot = (int) ((this.slotStart % PERIOD) / SLOT_WIDTH);
+		this.position = 0;
+	}
+
+	/**
+	 * Sort the entries pushed to a slot since it was last sorted and merge
+	 * them into its sorted prefix
+	 *
+	 * @param slot Slot
+	 */
+	private void sortSlot(int slot) {
+		int[] entries = this.slots[slot];
+		int sorted = this.sortedSizes[slot];
+		int slotSize = this.slotSizes[slot];
+		if (this.scratch.length < slotSize) {
+			this.scratch = new int[entries.length];
+		}
+		// Entries the cursor passed are not due in this lap, so it can look
+		// at the merged slot again from the start
+		if (slot == this.slot) {
+			this.position = 0;
+		}
+		// Bottom-up merge sort of the new entries, then one final merge
+		for (int width = 1; width < slotSize - sorted; width *= 2) {
+			for (int low = sorted; low < slotSize - width; low += 2 * width) {
+				merge(entries, low, low + width,
+						Math.min(low + 2 * width, slotSize));
+			}
+		}
+		merge(entries, 0, sorted, slotSize);
+		this.sortedSizes[slot] = slotSize;
+	}
+
+	/**
+	 * Stably merge two adjacent runs sorted by phase
+	 *
+	 * @param entries Entries
+	 * @param low     Start of the first run
+	 * @param middle  Start of the second run
+	 * @param high    End of the second run
+	 */
+	private void merge(int[] entries, int low, int middle, int high) {
+		int[] scratch = this.scratch;
+		double[] phases = this.phases;
+		int i = low;
+		int j = middle;
+		int k = low;
+		while (i < middle && j < high) {
+			scratch[k++] = (phases[entries[j]] < phases[entries[i]])
+					? entries[j++]
+					: entries[i++];
+		}
+		while (i < middle) {
+			scratch[k++] = entries[i++];
+		}
+		while (j < high) {
+			scratch[k++] = entries[j++];
+		}
+		System.arraycopy(scratch, low, entries, low, high - low);
+	}
+
+	/**
+	 * Allocate entry
+	 */
+	private int allocate() {
+		if (this.freeCount > 0) {
+			return this.freeEntries[--this.freeCount];
+		}
+		if (this.entryCount == this.times.length) {
+			grow();
+		}
+		return this.entryCount++;
+	}
+
+	/**
+	 * Grow capacity
+	 */
+	private void grow() {
+		int capacity = this.times.length * 2;
+		this.times = Arrays.copyOf(this.times, capacity);
+		this.phases = Arrays.copyOf(this.phases, capacity);
+		this.citizens = Arrays.copyOf(this.citizens, capacity);
+		this.events = Arrays.copyOf(this.events, capacity);
+		this.tokens = Arrays.copyOf(this.tokens, capacity);
+		this.freeEntries = Arrays.copyOf(this.freeEntries, capacity);
+	}
+
+}
@@ -0,0 +1,122 @@
+package simulation;
+
+import java.util.Map;
+import calibration.CalibrationParameter;
+import model.CellIndex;
+import model.Citizen;
+import model.CitizenEvent;
+import model.Population;
+import output.OutputManager;
+
+public interface World {
+
+	/**
+	 * Get parameters adapter
+	 */
+	public ParametersAdapter getParametersAdapter();
+
+	/**
+	 * Get population store
+	 */
+	public Population getPopulation();
+
+	/**
+	 * Get citizen
+	 *
+	 * @param id Citizen id
+	 */
+	public Citizen getCitizen(int id);
+
+	/**
+	 * Get city's length
+	 */
+	public int getCityLength();
+
+	/**
+	 * Get city's width
+	 */
+	public int getCityWidth();
+
+	/**
+	 * Get cell index
+	 */
+	public CellIndex getCellIndex();
+
+	/**
+	 * Get output manager
+	 */
+	public OutputManager getOutputManager();
+
+	/**
+	 * Get calibration setup
+	 */
+	public Map<String, CalibrationParameter> getCalibrationSetup();
+
+	/**
+	 * Reset simulation
+	 */
+	public void resetSimulation();
+
+	/**
+	 * Schedule one-time citizen event
+	 *
+	 * @param ticksToEvent Ticks to event
+	 * @param citizen      Citizen
+	 * @param event        Event
+	 */
+	public void scheduleOneTimeEvent(double ticksToEvent, Citizen citizen,
+			CitizenEvent event);
+
+	/**
+	 * Schedule recurring citizen event
+	 *
+	 * @param ticksToEvent Ticks to event
+	 * @param citizen      Citizen
+	 * @param tickInterval Tick interval
+	 * @param event        Event
+	 */
+	public void scheduleRecurringEvent(double ticksToEvent, Citizen citizen,
+			double tickInterval, CitizenEvent event);
+
+	/**
+	 * Unschedule citizen event
+	 *
+	 * @param citizen Citizen
+	 * @param event   Event
+	 */
+	public void unscheduleEvent(Citizen citizen, CitizenEvent event);
+
+	/**
+	 * Unschedule all citizen events
+	 *
+	 * @param citizen Citizen
+	 */
+	public void unscheduleEvents(Citizen citizen);
+
+	/**
+	 * Move citizen by displacement
+	 *
+	 * @param citizen Citizen
+	 * @param x       Displacement along the x axis
+	 * @param y       Displacement along the y axis
+	 */
+	public void moveByDisplacement(Citizen citizen, double x, double y);
+
+	/**
+	 * Move walking citizens by displacement
+	 *
+	 * @param displacements Displacements along the x and y axes,
+	 *                      interleaved by citizen id
+	 */
+	public void moveWalkers(double[] displacements);
+
+	/**
+	 * Move citizen to location
+	 *
+	 * @param citizen Citizen
+	 * @param x       X coordinate
+	 * @param y       Y coordinate
+	 */
+	public void moveTo(Citizen citizen, double x, double y);
+
+}
@@ -0,0 +1,251 @@
+package sweep;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import calibration.EvaluationCache;
+import config.SourcePaths;
+import datasource.Reader;
+import repast.simphony.util.collections.Pair;
+import simulation.HeadlessSimulation;
+
+public class ParameterSweep {
+
+	/**
+	 * Latin hypercube samples parameter id (full-factorial design if absent)
+	 */
+	private static final String SWEEP_SAMPLES_PARAM_ID = "sweepSamples";
+
+	/**
+	 * Replicas per sweep point parameter id
+	 */
+	private static final String SWEEP_REPLICAS_PARAM_ID = "sweepReplicas";
+
+	/**
+	 * Replica workers parameter id
+	 */
+	private static final String REPLICA_WORKERS_PARAM_ID = "replicaWorkers";
+
+	/**
+	 * Evaluation cache parameter id
+	 */
+	private static final String EVALUATION_CACHE_PARAM_ID = "evaluationCache";
+
+	/**
+	 * Sweep parameters
+	 */
+	private List<SweepParameter> sweepParameters;
+
+	/**
+	 * Sweep points (values in sweep parameter order)
+	 */
+	private List<double[]> points;
+
+	/**
+	 * Replicas per sweep point
+	 */
+	private int replicas;
+
+	/**
+	 * Worker worlds, built once and reused for every sweep point
+	 */
+	private List<HeadlessSimulation> worlds;
+
+	/**
+	 * Create a new parameter sweep
+	 *
+	 * @param world           Template world
+	 * @param parameters      Model parameters
+	 * @param sweepParameters Sweep parameters
+	 * @param points          Sweep points
+	 * @param replicas        Replicas per sweep point
+	 * @param workers         Number of workers
+	 */
+	public ParameterSweep(HeadlessSimulation world,
+			Map<String, Double> parameters,
+			List<SweepParameter> sweepParameters, List<double[]> points,
+			int replicas, int workers) {
+		this.sweepParameters = sweepParameters;
+		this.points = points;
+		this.replicas = replicas;
+		this.worlds = new ArrayList<>();
+		this.worlds.add(world);
+		for (int i = 1; i < workers; i++) {
+			this.worlds.add(new HeadlessSimulation(parameters, world.getSeed()));
+		}
+		// Fail before running anything if a parameter cannot be swept
+		for (SweepParameter parameter : sweepParameters) {
+			world.setParameterValue(parameter.getParameterId(),
+					parameter.getLowerBound());
+		}
+	}
+
+	/**
+	 * Run a parameter sweep with the default model parameters and the sweep
+	 * setup
+	 *
+	 * @param args Command line arguments
+	 */
+	public static void main(String[] args) {
+		Map<String, Double> parameters = Reader
+				.readParameters(SourcePaths.PARAMETERS_DATABASE);
+		List<SweepParameter> sweepParameters = Reader
+				.readSweepSetup(SourcePaths.SWEEP_SETUP_DATABASE);
+		// Sweep settings do not affect replica outputs
+		Double samples = parameters.remove(SWEEP_SAMPLES_PARAM_ID);
+		int replicas = parameters.getOrDefault(SWEEP_REPLICAS_PARAM_ID, 1.0)
+				.intValue();
+		parameters.remove(SWEEP_REPLICAS_PARAM_ID);
+		Double workers = parameters.get(REPLICA_WORKERS_PARAM_ID);
+		if (workers == null) {
+			workers = (double) Runtime.getRuntime().availableProcessors();
+		}
+		HeadlessSimulation world = new HeadlessSimulation(parameters);
+		List<double[]> points = (samples != null && samples > 0)
+				? SweepDesign.createLatinHypercube(sweepParameters,
+						samples.intValue(), world.getSeed())
+				: SweepDesign.createGrid(sweepParameters);
+		ParameterSweep sweep = new ParameterSweep(world, parameters,
+				sweepParameters, points, replicas, workers.intValue());
+		Double evaluationCache = parameters.get(EVALUATION_CACHE_PARAM_ID);
+		if (evaluationCache != null && evaluationCache > 0) {
+			sweep.setEvaluationCache(
+					new EvaluationCache(SourcePaths.EVALUATION_CACHE));
+		}
+		try {
+			sweep.run(SourcePaths.SWEEP_RESULTS);
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+	/**
+	 * Set evaluation cache
+	 *
+	 * @param evaluationCache Evaluation cache (null to disable)
+	 */
+	public void setEvaluationCache(EvaluationCache evaluationCache) {
+		for (HeadlessSimulation world : this.worlds) {
+			world.setEvaluationCache(evaluationCache);
+		}
+	}
+
+	/**
+	 * Run every replica of every sweep point and write one results row per
+	 * replica. Replica r of every point uses simulation run r, so points
+	 * are compared under common random numbers. Rows are written in point
+	 * order as they become contiguous. Workers only set the sweep
+	 * parameters when they move on to another point.
+	 *
+	 * @param filename Results file name
+	 */
+	public void run(String filename) throws IOException {
+		Path path = Paths.get(filename);
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		int jobs = this.points.size() * this.replicas;
+		String[] rows = new String[jobs];
+		AtomicInteger nextJob = new AtomicInteger();
+		int[] nextRow = new int[1];
+		ExecutorService executor = Executors
+				.newFixedThreadPool(this.worlds.size());
+		try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+			writer.write(getHeader());
+			writer.newLine();
+			List<Future<?>> futures = new ArrayList<>();
+			for (HeadlessSimulation world : this.worlds) {
+				futures.add(executor.submit(() -> {
+					int appliedPoint = -1;
+					int job;
+					while ((job = nextJob.getAndIncrement()) < jobs) {
+						int point = job / this.replicas;
+						int replica = job % this.replicas;
+						if (point != appliedPoint) {
+							applyPoint(world, point);
+							appliedPoint = point;
+						}
+						rows[job] = runJob(world, point, replica);
+						synchronized (writer) {
+							while (nextRow[0] < jobs
+									&& rows[nextRow[0]] != null) {
+								writer.write(rows[nextRow[0]]);
+								writer.newLine();
+								rows[nextRow[0]++] = null;
+							}
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while sweeping", ie);
+		} catch (ExecutionException ee) {
+			throw new IllegalStateException("Sweep point failed",
+					ee.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Set a sweep point's parameter values on a worker world
+	 *
+	 * @param world Worker world
+	 * @param point Sweep point
+	 */
+	private void applyPoint(HeadlessSimulation world, int point) {
+		double[] values = this.points.get(point);
+		for (int i = 0; i < values.length; i++) {
+			world.setParameterValue(
+					this.sweepParameters.get(i).getParameterId(), values[i]);
+		}
+	}
+
+	/**
+	 * Run a sweep point's replica on a worker world with the point applied
+	 *
+	 * @param world   Worker world
+	 * @param point   Sweep point
+	 * @param replica Replica
+	 * @return Results row
+	 */
+	private String runJob(HeadlessSimulation world, int point, int replica) {
+		double[] values = this.points.get(point);
+		StringBuilder row = new StringBuilder();
+		row.append(point).append(',').append(replica);
+		for (double value : values) {
+			row.append(',').append(value);
+		}
+		Pair<Integer, Integer> outputs = world.evaluateReplica(replica);
+		row.append(',').append(outputs.getFirst()).append(',')
+				.append(outputs.getSecond());
+		return row.toString();
+	}
+
+	/**
+	 * Get results header
+	 */
+	private String getHeader() {
+		StringBuilder header = new StringBuilder("POINT,REPLICA");
+		for (SweepParameter parameter : this.sweepParameters) {
+			header.append(',').append(parameter.getParameterId());
+		}
+		return header.append(",INFECTIONS,EXPOSURES").toString();
+	}
+
+}
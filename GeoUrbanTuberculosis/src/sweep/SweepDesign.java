@@ -0,0 +1,87 @@
+package sweep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public final class SweepDesign {
+
+	/**
+	 * Private constructor
+	 */
+	private SweepDesign() {
+		throw new UnsupportedOperationException("Utility class");
+	}
+
+	/**
+	 * Create a full-factorial design over every parameter's levels. A
+	 * single-level parameter stays at its lower bound.
+	 * 
+	 * @param parameters Sweep parameters
+	 * @return Sweep points (values in parameter order)
+	 */
+	public static List<double[]> createGrid(List<SweepParameter> parameters) {
+		List<double[]> points = new ArrayList<>();
+		int[] levels = new int[parameters.size()];
+		while (true) {
+			double[] point = new double[parameters.size()];
+			for (int i = 0; i < point.length; i++) {
+				SweepParameter parameter = parameters.get(i);
+				int count = parameter.getLevels();
+				point[i] = (count <= 1) ? parameter.getLowerBound()
+						: parameter.getLowerBound() + levels[i]
+								* (parameter.getUpperBound()
+										- parameter.getLowerBound())
+								/ (count - 1);
+			}
+			points.add(point);
+			// Advance the last parameter fastest, like an odometer
+			int i = levels.length - 1;
+			while (i >= 0 && ++levels[i] >= parameters.get(i).getLevels()) {
+				levels[i--] = 0;
+			}
+			if (i < 0) {
+				return points;
+			}
+		}
+	}
+
+	/**
+	 * Create a Latin hypercube design: every parameter's range is split in
+	 * as many strata as samples and each stratum is sampled exactly once
+	 * 
+	 * @param parameters Sweep parameters
+	 * @param samples    Number of samples
+	 * @param seed       Random seed
+	 * @return Sweep points (values in parameter order)
+	 */
+	public static List<double[]> createLatinHypercube(
+			List<SweepParameter> parameters, int samples, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<double[]> points = new ArrayList<>();
+		for (int j = 0; j < samples; j++) {
+			points.add(new double[parameters.size()]);
+		}
+		int[] strata = new int[samples];
+		for (int i = 0; i < parameters.size(); i++) {
+			SweepParameter parameter = parameters.get(i);
+			double range = parameter.getUpperBound()
+					- parameter.getLowerBound();
+			for (int j = 0; j < samples; j++) {
+				strata[j] = j;
+			}
+			for (int j = samples - 1; j > 0; j--) {
+				int k = random.nextInt(j + 1);
+				int stratum = strata[j];
+				strata[j] = strata[k];
+				strata[k] = stratum;
+			}
+			for (int j = 0; j < samples; j++) {
+				points.get(j)[i] = parameter.getLowerBound() + range
+						* (strata[j] + random.nextDouble()) / samples;
+			}
+		}
+		return points;
+	}
+
+}
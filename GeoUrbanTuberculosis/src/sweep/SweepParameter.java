@@ -0,0 +1,69 @@
+package sweep;
+
+public class SweepParameter {
+
+	/**
+	 * Parameter id
+	 */
+	private String parameterId;
+
+	/**
+	 * Lower bound
+	 */
+	private double lowerBound;
+
+	/**
+	 * Upper bound
+	 */
+	private double upperBound;
+
+	/**
+	 * Levels in a full-factorial design
+	 */
+	private int levels;
+
+	/**
+	 * Create a new sweep parameter
+	 * 
+	 * @param parameterId Parameter id
+	 * @param lowerBound  Lower bound
+	 * @param upperBound  Upper bound
+	 * @param levels      Levels in a full-factorial design
+	 */
+	public SweepParameter(String parameterId, double lowerBound,
+			double upperBound, int levels) {
+		this.parameterId = parameterId;
+		this.lowerBound = lowerBound;
+		this.upperBound = upperBound;
+		this.levels = levels;
+	}
+
+	/**
+	 * Get parameter id
+	 */
+	public String getParameterId() {
+		return this.parameterId;
+	}
+
+	/**
+	 * Get lower bound
+	 */
+	public double getLowerBound() {
+		return this.lowerBound;
+	}
+
+	/**
+	 * Get upper bound
+	 */
+	public double getUpperBound() {
+		return this.upperBound;
+	}
+
+	/**
+	 * Get levels in a full-factorial design
+	 */
+	public int getLevels() {
+		return this.levels;
+	}
+
+}